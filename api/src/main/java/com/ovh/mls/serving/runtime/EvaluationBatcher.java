@@ -0,0 +1,298 @@
+package com.ovh.mls.serving.runtime;
+
+import com.ovh.mls.serving.runtime.core.EvaluationContext;
+import com.ovh.mls.serving.runtime.core.Evaluator;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorShape;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-batching layer in front of an evaluator
+ *
+ * Concurrent evaluations whose inputs have the same tensors (same names, datatypes and dimensions but the first one)
+ * are concatenated along the first axis and evaluated with a single call to the evaluator. Outputs are then sliced
+ * back for each caller. A batch is evaluated as soon as it reaches the max batch size or when the first queued
+ * evaluation has waited for the max delay.
+ */
+class EvaluationBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvaluationBatcher.class);
+
+    private final Evaluator evaluator;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutNanos;
+    private final BlockingQueue<PendingEvaluation> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * @param timeout Maximum time a caller waits for its queued evaluation
+     */
+    EvaluationBatcher(Evaluator evaluator, int maxBatchSize, Duration maxDelay, Duration timeout, int workers) {
+        this.evaluator = evaluator;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::run, "evaluation-batcher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Evaluate the given input, batching it with other concurrent evaluations when possible
+     */
+    TensorIO evaluate(TensorIO input, EvaluationContext context) throws EvaluationException {
+        String signature = signature(input, context);
+        int rows = rows(input);
+        // Debugging evaluations, inputs that can't be split back and rolling windows (that would span the rows of
+        // several callers) are not batched
+        if (
+            !context.shouldSimplify() || signature == null || rows <= 0 || rows >= this.maxBatchSize
+                || this.evaluator.getRollingWindowSize() > 1
+        ) {
+            return this.evaluator.evaluate(input, context);
+        }
+
+        PendingEvaluation pending = new PendingEvaluation(input, context, signature, rows);
+        this.queue.add(pending);
+        try {
+            return pending.result.get(this.timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The evaluation is withdrawn so that an overloaded server doesn't spend time on it
+            pending.result.cancel(false);
+            this.queue.remove(pending);
+            throw new ServiceUnavailableException("Timed out while waiting for batched evaluation");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EvaluationException("Interrupted while waiting for evaluation", e);
+        } catch (ExecutionException e) {
+            // Rethrow what the evaluator has thrown, as if it was called directly
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new EvaluationException(e);
+        }
+    }
+
+    /**
+     * Loop of a worker thread building and evaluating batches
+     */
+    private void run() {
+        PendingEvaluation next = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingEvaluation> batch = new ArrayList<>();
+            try {
+                PendingEvaluation first = next != null ? next : this.queue.take();
+                next = null;
+                if (first.result.isDone()) {
+                    // Cancelled by its caller
+                    continue;
+                }
+                batch.add(first);
+                int rows = first.rows;
+
+                long deadline = first.enqueuedAt + this.maxDelayNanos;
+                while (rows < this.maxBatchSize) {
+                    PendingEvaluation candidate = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (candidate == null) {
+                        break;
+                    }
+                    if (candidate.result.isDone()) {
+                        continue;
+                    }
+                    if (!candidate.signature.equals(first.signature) || rows + candidate.rows > this.maxBatchSize) {
+                        // Incompatible evaluation will start the next batch
+                        next = candidate;
+                        break;
+                    }
+                    batch.add(candidate);
+                    rows += candidate.rows;
+                }
+                evaluateBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, e);
+            } catch (Throwable e) {
+                // The worker must survive so that later evaluations are still processed
+                LOGGER.error("Batched evaluation failed", e);
+                fail(batch, e);
+            }
+        }
+        if (next != null) {
+            fail(List.of(next), new InterruptedException("Batching worker stopped"));
+        }
+    }
+
+    /**
+     * Fail the evaluations of the batch that are not completed yet
+     */
+    private static void fail(List<PendingEvaluation> batch, Throwable e) {
+        for (PendingEvaluation pending : batch) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private void evaluateBatch(List<PendingEvaluation> queued) {
+        // Callers may have given up while the batch was built
+        List<PendingEvaluation> batch = queued.stream()
+            .filter(pending -> !pending.result.isDone())
+            .collect(Collectors.toList());
+        int rows = batch.stream().mapToInt(pending -> pending.rows).sum();
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            evaluateSingle(batch.get(0));
+            return;
+        }
+
+        EvaluationContext batchContext = new EvaluationContext();
+        batchContext.setRequestedOutputs(batch.get(0).context.getRequestedOutputs());
+        if (batch.stream().anyMatch(pending -> pending.context.isTimingEnabled())) {
+            batchContext.enableTimings();
+        }
+        TensorIO output;
+        try {
+            List<TensorIO> inputs = new ArrayList<>(batch.size());
+            for (PendingEvaluation pending : batch) {
+                inputs.add(pending.input);
+            }
+            output = this.evaluator.evaluate(TensorIO.concat(inputs, 0), batchContext);
+        } catch (Throwable e) {
+            // Evaluate each input on its own so that a single invalid input doesn't fail the others
+            LOGGER.debug("Batched evaluation failed, evaluating inputs one by one", e);
+            batch.forEach(this::evaluateSingle);
+            return;
+        }
+
+        // Outputs without one row per input row (e.g. aggregations) can't be split back between callers
+        boolean splittable = output.getTensors()
+            .values()
+            .stream()
+            .allMatch(tensor -> tensor.getShapeAsArray().length > 0 && tensor.getShapeAsArray()[0] == rows);
+        if (!splittable) {
+            LOGGER.debug("Batched outputs can't be split back, evaluating inputs one by one");
+            batch.forEach(this::evaluateSingle);
+            return;
+        }
+
+        // Outputs are flattened once so that each slice is a view over the same storage
+        Map<String, Tensor> flatOutputs = new HashMap<>();
+        output.getTensors().forEach((name, tensor) -> flatOutputs.put(name, tensor.toFlat()));
+        output = new TensorIO(flatOutputs);
+
+        int offset = 0;
+        for (PendingEvaluation pending : batch) {
+            pending.context.incEvaluationBy(pending.rows);
+            pending.context.setBatchSize(rows);
+            pending.context.recordTimings(batchContext.getTimings());
+            pending.result.complete(slice(output, offset, pending.rows));
+            offset += pending.rows;
+        }
+    }
+
+    private void evaluateSingle(PendingEvaluation pending) {
+        try {
+            pending.result.complete(this.evaluator.evaluate(pending.input, pending.context));
+        } catch (Throwable e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Slice the rows of a single caller from each batched output tensor
+     */
+    private static TensorIO slice(TensorIO output, int offset, int rows) {
+        Map<String, Tensor> tensors = new HashMap<>();
+        for (Map.Entry<String, Tensor> entry : output.getTensors().entrySet()) {
+            Tensor tensor = entry.getValue();
+            int[] shape = tensor.getShapeAsArray();
+            int[] begin = new int[shape.length];
+            begin[0] = offset;
+            int[] size = Arrays.copyOf(shape, shape.length);
+            size[0] = rows;
+            tensors.put(entry.getKey(), tensor.slice(new TensorShape(begin), new TensorShape(size)));
+        }
+        return new TensorIO(tensors);
+    }
+
+    /**
+     * Describe the tensors of an input but their first dimension and the requested outputs: only evaluations of same
+     * signature can be batched
+     * Return null if the input can't be batched
+     */
+    private static String signature(TensorIO input, EvaluationContext context) {
+        if (input.getTensors().isEmpty()) {
+            return null;
+        }
+        Map<String, String> descriptions = new TreeMap<>();
+        for (Map.Entry<String, Tensor> entry : input.getTensors().entrySet()) {
+            Tensor tensor = entry.getValue();
+            int[] shape = tensor.getShapeAsArray();
+            if (shape.length == 0) {
+                return null;
+            }
+            descriptions.put(
+                entry.getKey(),
+                tensor.getType() + Arrays.toString(Arrays.copyOfRange(shape, 1, shape.length))
+            );
+        }
+        Set<String> requestedOutputs = context.getRequestedOutputs();
+        return descriptions + (requestedOutputs == null ? "" : " -> " + new TreeSet<>(requestedOutputs));
+    }
+
+    /**
+     * Number of rows of an input, i.e. the first dimension shared by all its tensors (-1 if they differ)
+     */
+    private static int rows(TensorIO input) {
+        int rows = -1;
+        for (Tensor tensor : input.getTensors().values()) {
+            int[] shape = tensor.getShapeAsArray();
+            if (shape.length == 0 || (rows >= 0 && shape[0] != rows)) {
+                return -1;
+            }
+            rows = shape[0];
+        }
+        return rows;
+    }
+
+    private static class PendingEvaluation {
+        private final TensorIO input;
+        private final EvaluationContext context;
+        private final String signature;
+        private final int rows;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<TensorIO> result = new CompletableFuture<>();
+
+        PendingEvaluation(TensorIO input, EvaluationContext context, String signature, int rows) {
+            this.input = input;
+            this.context = context;
+            this.signature = signature;
+            this.rows = rows;
+        }
+    }
+}
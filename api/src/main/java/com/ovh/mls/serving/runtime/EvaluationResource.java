@@ -5,7 +5,9 @@ import com.ovh.mls.serving.runtime.core.EvaluationContext;
 import com.ovh.mls.serving.runtime.core.Evaluator;
 import com.ovh.mls.serving.runtime.core.Field;
 import com.ovh.mls.serving.runtime.core.builder.from.TensorIOIntoResponse;
+import com.ovh.mls.serving.runtime.core.io.TensorBinaryFormat;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.ErrorMessage;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.utils.img.ImageDefaults;
@@ -29,11 +31,17 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.HeaderParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static javax.ws.rs.core.HttpHeaders.AUTHORIZATION;
 
@@ -41,6 +49,8 @@ import static javax.ws.rs.core.HttpHeaders.AUTHORIZATION;
 @Tag(name = "Model")
 public class EvaluationResource {
 
+    private static final String SERIALIZE_TIMING = "serialize";
+
     @Inject
     EvaluationService evaluationService;
 
@@ -53,14 +63,16 @@ public class EvaluationResource {
         MediaType.APPLICATION_JSON,
         MediaType.MULTIPART_FORM_DATA,
         ImageDefaults.JPG_CONTENT_TYPE_STRING,
-        ImageDefaults.PNG_CONTENT_TYPE_STRING
+        ImageDefaults.PNG_CONTENT_TYPE_STRING,
+        TensorBinaryFormat.MIME_TYPE
     })
     @Produces({
             MediaType.APPLICATION_JSON,
             MediaType.MULTIPART_FORM_DATA,
             MediaType.TEXT_HTML,
             ImageDefaults.JPG_CONTENT_TYPE_STRING,
-            ImageDefaults.PNG_CONTENT_TYPE_STRING
+            ImageDefaults.PNG_CONTENT_TYPE_STRING,
+            TensorBinaryFormat.MIME_TYPE
     })
     @RequestBody(ref = "request")
     @ApiResponses({
@@ -83,6 +95,10 @@ public class EvaluationResource {
         @DefaultValue(MediaType.APPLICATION_JSON)
         @HeaderParam("Accept")
             String acceptHeader,
+        @HeaderParam("Outputs")
+            String outputsHeader,
+        @QueryParam("outputs")
+            String outputsQuery,
             InputStream inputStream
     )
         throws EvaluationException {
@@ -91,10 +107,73 @@ public class EvaluationResource {
         ObjectMapper mapper = evaluationService.getEvaluatorUtil().getObjectMapper();
         List<Field> outputFields = evaluationService.getEvaluator().getOutputs();
         EvaluationContext context = new EvaluationContext(step);
+        if (evaluationService.isServerTimingEnabled()) {
+            context.enableTimings();
+        }
+        // Outputs can be selected either by header or by query parameter (comma separated names)
+        Set<String> requestedOutputs = parseOutputs(outputsHeader != null ? outputsHeader : outputsQuery);
+        checkRequestedOutputs(requestedOutputs, outputFields);
+        context.setRequestedOutputs(requestedOutputs);
+        if (context.getRequestedOutputs() != null) {
+            outputFields = outputFields
+                .stream()
+                .filter(field -> isRequested(field, requestedOutputs))
+                .collect(Collectors.toList());
+        }
         boolean shouldSimplify = context.shouldSimplify();
         TensorIOIntoResponse builder = new TensorIOIntoResponse(acceptHeader, mapper, outputFields, shouldSimplify);
         TensorIO output = evaluationService.evaluate(contentType, inputStream, context);
-        return builder.build(output);
+        if (context.getRequestedOutputs() != null && context.shouldSimplify()) {
+            output.retainFields(outputFields);
+        }
+        long start = System.nanoTime();
+        Response response = builder.build(output);
+        if (!context.isTimingEnabled()) {
+            return response;
+        }
+        // Streamed responses are serialized after the headers are sent
+        if (!(response.getEntity() instanceof StreamingOutput)) {
+            context.recordTiming(SERIALIZE_TIMING, null, start);
+        }
+        return Response.fromResponse(response)
+            .header(ServerTimingHeader.NAME, ServerTimingHeader.format(context))
+            .build();
+    }
+
+    private static Set<String> parseOutputs(String outputs) {
+        if (outputs == null) {
+            return Set.of();
+        }
+        return Arrays.stream(outputs.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Reject requested outputs that are neither the name of an output field nor the name of one of its indexes
+     */
+    static void checkRequestedOutputs(Set<String> requestedOutputs, List<Field> outputFields)
+        throws EvaluationException {
+        Set<String> unknownOutputs = requestedOutputs
+            .stream()
+            .filter(name -> outputFields.stream().noneMatch(field -> isRequested(field, Set.of(name))))
+            .collect(Collectors.toCollection(TreeSet::new));
+        if (!unknownOutputs.isEmpty()) {
+            throw new EvaluationException(String.format("Unknown requested outputs: %s", unknownOutputs));
+        }
+    }
+
+    /**
+     * An output field is requested if its name or the name of one of its indexes is
+     */
+    private static boolean isRequested(Field field, Set<String> requestedOutputs) {
+        if (requestedOutputs.contains(field.getName())) {
+            return true;
+        }
+        return field instanceof TensorField
+            && ((TensorField) field).getFields() != null
+            && ((TensorField) field).getFields().stream().anyMatch(index -> requestedOutputs.contains(index.getName()));
     }
 
     @GET
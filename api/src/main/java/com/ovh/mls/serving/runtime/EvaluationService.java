@@ -2,6 +2,7 @@ package com.ovh.mls.serving.runtime;
 
 import com.github.racc.tscg.TypesafeConfig;
 import com.ovh.mls.serving.runtime.core.EvaluationContext;
+import com.ovh.mls.serving.runtime.core.EvaluationMetrics;
 import com.ovh.mls.serving.runtime.core.Evaluator;
 import com.ovh.mls.serving.runtime.core.EvaluatorUtil;
 import com.ovh.mls.serving.runtime.core.builder.Builder;
@@ -33,14 +34,26 @@ public class EvaluationService {
         .labelNames()
         .register();
 
+    static final String PARSE_TIMING = "parse";
+    static final String EVALUATE_TIMING = "eval";
+
     private final Evaluator evaluator;
     private final EvaluatorUtil evaluatorUtil;
+    // Optional micro-batching layer in front of the evaluator (null if disabled)
+    private final EvaluationBatcher batcher;
+    // Whether responses detail the duration of each stage of their evaluation
+    private final boolean serverTimingEnabled;
+    // Maximum number of bytes of a request in binary tensor format
+    private final long maxBinaryContentLength;
 
     @Inject
     EvaluationService(
         @TypesafeConfig("files.path") String filePath,
         @TypesafeConfig("swagger") Config config,
-        @TypesafeConfig("evaluator") Config evaluatorConfig
+        @TypesafeConfig("evaluator") Config evaluatorConfig,
+        @TypesafeConfig("batching") Config batchingConfig,
+        @TypesafeConfig("server_timing") Config serverTimingConfig,
+        @TypesafeConfig("binary_format") Config binaryFormatConfig
     ) {
         if (StringUtils.isEmpty(filePath)) {
             throw new RuntimeException("Missing Manifest Path");
@@ -56,6 +69,20 @@ public class EvaluationService {
 
         this.evaluator = optionalEvaluator.get();
 
+        if (batchingConfig.getBoolean("enabled")) {
+            this.batcher = new EvaluationBatcher(
+                this.evaluator,
+                batchingConfig.getInt("max_batch_size"),
+                batchingConfig.getDuration("max_delay"),
+                batchingConfig.getDuration("timeout"),
+                batchingConfig.getInt("workers")
+            );
+        } else {
+            this.batcher = null;
+        }
+        this.serverTimingEnabled = serverTimingConfig.getBoolean("enabled");
+        this.maxBinaryContentLength = binaryFormatConfig.getBytes("max_content_length");
+
         try {
             new SwaggerBuilder(config, this.evaluator).build();
         } catch (IOException | OpenApiConfigurationException e) {
@@ -74,20 +101,36 @@ public class EvaluationService {
         final Builder<InputStream, TensorIO> inputBuilder = new InputStreamIntoTensorIO(
             evaluatorUtil.getObjectMapper(),
             contentType,
-            this.evaluator.getInputs()
+            this.evaluator.getInputs(),
+            this.maxBinaryContentLength
         );
         // Convert an InputStream into TensorIO
+        long start = System.nanoTime();
         final TensorIO inputIO = inputBuilder.build(inputStream);
+        EvaluationMetrics.observeRequestStage(EvaluationMetrics.DECODE_STAGE, start);
+        context.recordTiming(PARSE_TIMING, null, start);
+        context.setBatchSize(inputIO.getBatchSize());
         return this.evaluate(inputIO, context);
     }
 
     private TensorIO evaluate(TensorIO tensorIO, EvaluationContext context) throws EvaluationException {
         // Get output Tensors from the model by feeding input Tensors
-        final TensorIO outputIO = evaluator.evaluate(tensorIO, context);
+        final TensorIO outputIO;
+        long start = System.nanoTime();
+        if (this.batcher != null) {
+            outputIO = this.batcher.evaluate(tensorIO, context);
+        } else {
+            outputIO = evaluator.evaluate(tensorIO, context);
+        }
+        context.recordTiming(EVALUATE_TIMING, null, start);
         EVALUATOR_COUNTER.inc(context.totalEvaluation());
         return outputIO;
     }
 
+    boolean isServerTimingEnabled() {
+        return this.serverTimingEnabled;
+    }
+
     EvaluatorUtil getEvaluatorUtil() {
         return this.evaluatorUtil;
     }
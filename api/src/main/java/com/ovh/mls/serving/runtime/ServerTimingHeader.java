@@ -0,0 +1,39 @@
+package com.ovh.mls.serving.runtime;
+
+import com.ovh.mls.serving.runtime.core.EvaluationContext;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Server-Timing header detailing the durations recorded in an evaluation context, in milliseconds
+ *
+ * @see <a href="https://www.w3.org/TR/server-timing/">Server Timing</a>
+ */
+final class ServerTimingHeader {
+
+    static final String NAME = "Server-Timing";
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private ServerTimingHeader() {
+    }
+
+    static String format(EvaluationContext context) {
+        StringJoiner header = new StringJoiner(", ");
+        for (EvaluationContext.Timing timing : context.getTimings()) {
+            String metric = String.format(
+                Locale.ROOT,
+                "%s;dur=%.3f",
+                timing.getName(),
+                timing.getDurationNanos() / NANOS_PER_MILLI
+            );
+            if (timing.getDescription() != null) {
+                metric += ";desc=\"" + timing.getDescription() + "\"";
+            }
+            header.add(metric);
+        }
+        header.add("batch;desc=\"" + context.getBatchSize() + "\"");
+        return header.toString();
+    }
+}
@@ -1,8 +1,10 @@
 package com.ovh.mls.serving.runtime.core;
 
-import io.prometheus.client.Summary;
+import com.github.racc.tscg.TypesafeConfig;
+import io.prometheus.client.Histogram;
 
 import javax.annotation.Priority;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
@@ -10,50 +12,69 @@ import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.Provider;
 
 
 @Provider
 @Priority(1)
 public class LogFilter implements ContainerRequestFilter, ContainerResponseFilter {
-    private static final ThreadLocal<Long> threadLocal = new ThreadLocal<>();
-
-    private static final Summary LATENCY = Summary.build()
-        .name("evaluator_api_request_latency_ms")
-        .help("Request latency in ms.")
-        .labelNames("class", "method", "status")
-        .quantile(0.5, 0.05)
-        .quantile(0.9, 0.01)
-        .quantile(0.99, 0.001)
+    private static final String START_PROPERTY = LogFilter.class.getName() + ".start";
+    private static final String NO_CONTENT_TYPE = "none";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    // Fixed buckets (from 100 microseconds to about 13 seconds) can be aggregated across instances, and are recorded
+    // without locking
+    private static final Histogram LATENCY = Histogram.build()
+        .name("evaluator_api_request_latency_seconds")
+        .help("Request latency in seconds.")
+        .labelNames("class", "method", "status", "model", "content_type")
+        .exponentialBuckets(0.0001, 2, 18)
         .register();
 
+    private final String modelName;
+
     @Context
     private ResourceInfo resourceInfo;
 
     @Context
     private HttpServletRequest request;
 
+    @Inject
+    public LogFilter(@TypesafeConfig("server.metrics.model_name") String modelName) {
+        this.modelName = modelName;
+    }
+
     @Override
     public void filter(ContainerRequestContext requestContext) {
-        LogFilter.threadLocal.set(System.currentTimeMillis());
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
     }
 
     @Override
     public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
-        Long start = LogFilter.threadLocal.get();
-
-        if (start == null) {
-            // In case of error, we don't enter on the first filter
-            start = System.currentTimeMillis();
-        }
-        long time = System.currentTimeMillis() - start;
+        long end = System.nanoTime();
+        Object start = requestContext.getProperty(START_PROPERTY);
+        // In case of error, we don't enter on the first filter
+        long time = start != null ? end - (Long) start : 0L;
 
         if (resourceInfo.getResourceClass() != null) {
             LATENCY.labels(
                 resourceInfo.getResourceClass().getSimpleName(),
                 resourceInfo.getResourceMethod().getName(),
-                String.valueOf(responseContext.getStatus())
-            ).observe(time);
+                String.valueOf(responseContext.getStatus()),
+                modelName,
+                contentType(responseContext.getMediaType())
+            ).observe(time / NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Content type without its parameters, so that the number of label values stays bounded
+     */
+    private static String contentType(MediaType mediaType) {
+        if (mediaType == null) {
+            return NO_CONTENT_TYPE;
         }
+        return mediaType.getType() + "/" + mediaType.getSubtype();
     }
 }
@@ -0,0 +1,28 @@
+package com.ovh.mls.serving.runtime.core.builder.from;
+
+import com.ovh.mls.serving.runtime.core.builder.Builder;
+import com.ovh.mls.serving.runtime.core.io.TensorBinaryFormat;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Convert a TensorIO into a StreamingOutput of tensors in binary format
+ *
+ * @see TensorBinaryFormat
+ */
+public class TensorIOIntoBinaryStream implements Builder<TensorIO, StreamingOutput> {
+
+    private final boolean shouldSimplify;
+
+    public TensorIOIntoBinaryStream(boolean shouldSimplify) {
+        this.shouldSimplify = shouldSimplify;
+    }
+
+    @Override
+    public StreamingOutput build(TensorIO input) throws EvaluationException {
+        TensorIO output = this.shouldSimplify ? input.simplifyAll() : input;
+        return outputStream -> TensorBinaryFormat.write(output, outputStream);
+    }
+}
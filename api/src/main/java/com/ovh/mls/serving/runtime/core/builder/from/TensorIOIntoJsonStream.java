@@ -0,0 +1,145 @@
+package com.ovh.mls.serving.runtime.core.builder.from;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.builder.Builder;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Convert a TensorIO into a Json StreamingOutput
+ * Flat tensors are written element by element from their primitive storage, without building any intermediate map
+ * or buffering the whole json body
+ */
+public class TensorIOIntoJsonStream implements Builder<TensorIO, StreamingOutput> {
+
+    private final ObjectMapper mapper;
+    private final boolean shouldSimplify;
+
+    public TensorIOIntoJsonStream(ObjectMapper mapper, boolean shouldSimplify) {
+        this.shouldSimplify = shouldSimplify;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public StreamingOutput build(TensorIO input) throws EvaluationException {
+        return outputStream -> write(input, outputStream);
+    }
+
+    /**
+     * Write the given TensorIO as a json map of (name -> tensor) into the output stream
+     */
+    public void write(TensorIO input, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = this.mapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Tensor> entry : input.getTensors().entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                writeTensor(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeTensor(JsonGenerator generator, Tensor tensor) throws IOException {
+        // Nested tensors and scalars are directly serialized by jackson
+        if (!tensor.isFlat() || tensor.isScalar() || tensor.getType() == DataType.DATE) {
+            generator.writeObject(tensor.jsonData(this.shouldSimplify));
+            return;
+        }
+        Tensor toWrite = this.shouldSimplify ? tensor.simplifyShape() : tensor;
+        if (toWrite.isScalar()) {
+            generator.writeObject(toWrite.getData());
+            return;
+        }
+        // Views (e.g. the rows of a batched output) are walked inside their storage without being copied
+        writeLayer(
+            generator,
+            toWrite.getStorage().getArray(),
+            toWrite.getShapeAsArray(),
+            toWrite.getStrides(),
+            0,
+            toWrite.getOffset()
+        );
+    }
+
+    /**
+     * Write one dimension of a strided view over a flat storage as a json array
+     */
+    private static void writeLayer(
+        JsonGenerator generator,
+        Object array,
+        int[] shape,
+        int[] strides,
+        int dimension,
+        int position
+    ) throws IOException {
+        int dimensionSize = shape[dimension];
+        int stride = strides[dimension];
+        if (dimension == shape.length - 1) {
+            writeValues(generator, array, position, dimensionSize, stride);
+            return;
+        }
+        generator.writeStartArray();
+        for (int i = 0; i < dimensionSize; i++) {
+            writeLayer(generator, array, shape, strides, dimension + 1, position + i * stride);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeValues(
+        JsonGenerator generator,
+        Object array,
+        int from,
+        int length,
+        int stride
+    ) throws IOException {
+        if (stride == 1 && array instanceof double[]) {
+            generator.writeArray((double[]) array, from, length);
+        } else if (stride == 1 && array instanceof int[]) {
+            generator.writeArray((int[]) array, from, length);
+        } else if (stride == 1 && array instanceof long[]) {
+            generator.writeArray((long[]) array, from, length);
+        } else {
+            generator.writeStartArray();
+            if (array instanceof double[]) {
+                double[] values = (double[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeNumber(values[i]);
+                }
+            } else if (array instanceof int[]) {
+                int[] values = (int[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeNumber(values[i]);
+                }
+            } else if (array instanceof long[]) {
+                long[] values = (long[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeNumber(values[i]);
+                }
+            } else if (array instanceof float[]) {
+                float[] values = (float[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeNumber(values[i]);
+                }
+            } else if (array instanceof boolean[]) {
+                boolean[] values = (boolean[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeBoolean(values[i]);
+                }
+            } else {
+                Object[] values = (Object[]) array;
+                for (int k = 0, i = from; k < length; k++, i += stride) {
+                    generator.writeObject(values[i]);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
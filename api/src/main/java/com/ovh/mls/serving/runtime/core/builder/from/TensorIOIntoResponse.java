@@ -1,8 +1,10 @@
 package com.ovh.mls.serving.runtime.core.builder.from;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.EvaluationMetrics;
 import com.ovh.mls.serving.runtime.core.Field;
 import com.ovh.mls.serving.runtime.core.builder.Builder;
+import com.ovh.mls.serving.runtime.core.io.TensorBinaryFormat;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.utils.img.BinaryContent;
@@ -10,6 +12,7 @@ import com.ovh.mls.serving.runtime.utils.img.ImageDefaults;
 import org.apache.http.entity.ContentType;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.util.List;
 
 public class TensorIOIntoResponse implements Builder<TensorIO, Response> {
@@ -49,8 +52,25 @@ public class TensorIOIntoResponse implements Builder<TensorIO, Response> {
 
     @Override
     public Response build(TensorIO input) throws EvaluationException {
+        if (isJson()) {
+            // Json is streamed directly into the response body
+            return Response
+                    .status(200)
+                    .header(CONTENT_TYPE, ContentType.APPLICATION_JSON.toString())
+                    .entity(timed(new TensorIOIntoJsonStream(this.mapper, this.shouldSimplify).build(input)))
+                    .build();
+        }
+        if (TensorBinaryFormat.MIME_TYPE.equals(this.contentType.getMimeType())) {
+            return Response
+                    .status(200)
+                    .header(CONTENT_TYPE, TensorBinaryFormat.MIME_TYPE)
+                    .entity(timed(new TensorIOIntoBinaryStream(this.shouldSimplify).build(input)))
+                    .build();
+        }
         Builder<TensorIO, BinaryContent> builder = getBuilder();
+        long start = System.nanoTime();
         BinaryContent content = builder.build(input);
+        EvaluationMetrics.observeRequestStage(EvaluationMetrics.ENCODE_STAGE, start);
         return Response
                 .status(200)
                 .header(CONTENT_TYPE, content.getContentType().toString())
@@ -58,6 +78,25 @@ public class TensorIOIntoResponse implements Builder<TensorIO, Response> {
                 .build();
     }
 
+    /**
+     * Streamed outputs are encoded while the response is written
+     */
+    private static StreamingOutput timed(StreamingOutput streamingOutput) {
+        return outputStream -> {
+            long start = System.nanoTime();
+            try {
+                streamingOutput.write(outputStream);
+            } finally {
+                EvaluationMetrics.observeRequestStage(EvaluationMetrics.ENCODE_STAGE, start);
+            }
+        };
+    }
+
+    private boolean isJson() {
+        String mimeType = this.contentType.getMimeType();
+        return DEFAULT_ACCEPT_HEADER.equals(mimeType) || JSON_MIME.equals(mimeType);
+    }
+
     private Builder<TensorIO, BinaryContent> getBuilder() {
         switch (this.contentType.getMimeType()) {
             case ImageDefaults.JPG_CONTENT_TYPE_STRING:
@@ -81,9 +120,6 @@ public class TensorIOIntoResponse implements Builder<TensorIO, Response> {
                         this.shouldSimplify
                 );
 
-            case DEFAULT_ACCEPT_HEADER:
-            case JSON_MIME:
-                return new TensorIOIntoJsonBinary(mapper, shouldSimplify);
             default:
                 throw new EvaluationException(String.format("Accept header '%s' not supported...", acceptHeader));
         }
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ovh.mls.serving.runtime.core.Field;
 import com.ovh.mls.serving.runtime.core.builder.Builder;
 import com.ovh.mls.serving.runtime.core.builder.ImagesIntoTensor;
+import com.ovh.mls.serving.runtime.core.builder.InputStreamBinaryIntoTensorIO;
 import com.ovh.mls.serving.runtime.core.builder.InputStreamJsonIntoTensorIO;
 import com.ovh.mls.serving.runtime.core.builder.PartsIntoTensorIO;
 import com.ovh.mls.serving.runtime.core.io.Part;
+import com.ovh.mls.serving.runtime.core.io.TensorBinaryFormat;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
@@ -29,22 +31,38 @@ public class InputStreamIntoTensorIO implements Builder<InputStream, TensorIO> {
     private final ContentType contentType;
     private final ObjectMapper mapper;
     private final List<Field> fields;
+    private final long maxBinaryContentLength;
 
     public InputStreamIntoTensorIO(ObjectMapper mapper) {
         this(mapper, ContentType.APPLICATION_JSON, new ArrayList<>());
     }
 
     public InputStreamIntoTensorIO(ObjectMapper mapper, ContentType contentType, List<Field> fields) {
+        this(mapper, contentType, fields, TensorBinaryFormat.DEFAULT_MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * @param maxBinaryContentLength Maximum number of bytes of a content in binary tensor format
+     */
+    public InputStreamIntoTensorIO(
+        ObjectMapper mapper,
+        ContentType contentType,
+        List<Field> fields,
+        long maxBinaryContentLength
+    ) {
         this.contentType = contentType;
         this.mapper = mapper;
         this.fields = fields;
+        this.maxBinaryContentLength = maxBinaryContentLength;
     }
 
     @Override
     public TensorIO build(InputStream inputStream) throws EvaluationException {
         String mimeType = this.contentType.getMimeType();
         if (ContentType.APPLICATION_JSON.getMimeType().equals(mimeType)) {
-            return new InputStreamJsonIntoTensorIO(this.mapper).build(inputStream);
+            return new InputStreamJsonIntoTensorIO(this.mapper, this.fields).build(inputStream);
+        } else if (TensorBinaryFormat.MIME_TYPE.equals(mimeType)) {
+            return new InputStreamBinaryIntoTensorIO(this.maxBinaryContentLength).build(inputStream);
         } else if (ContentType.MULTIPART_FORM_DATA.getMimeType().equals(mimeType)) {
             final PartsIntoTensorIO builder = new PartsIntoTensorIO(this.mapper, this.fields);
             List<Part> parts = MultipartUtils.readParts(contentType, inputStream);
@@ -445,11 +445,10 @@ public class SwaggerBuilder {
         }
 
         Tensor tensor = new Tensor(field.getType(), shape);
-        var iterator = tensor.coordIterator();
-        while (iterator.hasNext()) {
-            int[] coord = iterator.next();
+        var cursor = tensor.cursor();
+        while (cursor.next()) {
             Object randomValue = getRandomValue(field);
-            tensor.setOnCoord(randomValue, coord);
+            tensor.setOnCoord(randomValue, cursor.coords());
         }
 
         return tensor;
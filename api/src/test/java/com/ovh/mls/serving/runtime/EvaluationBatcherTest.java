@@ -0,0 +1,232 @@
+package com.ovh.mls.serving.runtime;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.EvaluationContext;
+import com.ovh.mls.serving.runtime.core.Evaluator;
+import com.ovh.mls.serving.runtime.core.Field;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EvaluationBatcherTest {
+
+    /**
+     * Evaluator doubling its input and counting its calls
+     */
+    private static class DoublingEvaluator implements Evaluator<Field> {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+            calls.incrementAndGet();
+            Tensor output = io.getTensor("input").apply(x -> ((Float) x) * 2, DataType.FLOAT);
+            return new TensorIO(Map.of("output", output));
+        }
+
+        @Override
+        public List<Field> getInputs() {
+            return List.of();
+        }
+
+        @Override
+        public List<Field> getOutputs() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Evaluator summing all the rows of its input into a single one
+     */
+    private static class SummingEvaluator extends DoublingEvaluator {
+        @Override
+        public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+            float sum = 0;
+            for (float value : (float[]) io.getTensor("input").getData()) {
+                sum += value;
+            }
+            return new TensorIO(Map.of("output", Tensor.fromData(DataType.FLOAT, new float[]{sum})));
+        }
+    }
+
+    @Test
+    void testConcurrentEvaluationsAreBatched() throws Exception {
+        DoublingEvaluator evaluator = new DoublingEvaluator();
+        EvaluationBatcher batcher = new EvaluationBatcher(
+            evaluator, 8, Duration.ofMillis(200), Duration.ofSeconds(10), 1
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TensorIO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                float value = i;
+                results.add(executor.submit(() -> batcher.evaluate(
+                    new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[][]{{value, 1f}}))),
+                    new EvaluationContext()
+                )));
+            }
+            for (int i = 0; i < 8; i++) {
+                Tensor output = results.get(i).get().getTensor("output");
+                assertArrayEquals(new float[][]{{i * 2f, 2f}}, (float[][]) output.getData());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(evaluator.calls.get() < 8);
+    }
+
+    @Test
+    void testAggregatedOutputsAreNotShared() throws Exception {
+        SummingEvaluator evaluator = new SummingEvaluator();
+        EvaluationBatcher batcher = new EvaluationBatcher(
+            evaluator, 8, Duration.ofMillis(200), Duration.ofSeconds(10), 1
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TensorIO>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                float value = i;
+                results.add(executor.submit(() -> batcher.evaluate(
+                    new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{value, 1f}))),
+                    new EvaluationContext()
+                )));
+            }
+            // Each caller gets the sum of its own rows only
+            for (int i = 0; i < 4; i++) {
+                Tensor output = results.get(i).get().getTensor("output");
+                assertArrayEquals(new float[]{i + 1f}, (float[]) output.getData());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testWorkerSurvivesFailedBatch() throws Exception {
+        // Evaluator returning an invalid output for batched inputs only
+        DoublingEvaluator evaluator = new DoublingEvaluator() {
+            @Override
+            public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+                if (io.getBatchSize() > 2) {
+                    Map<String, Tensor> tensors = new HashMap<>();
+                    tensors.put("output", null);
+                    return new TensorIO(tensors);
+                }
+                return super.evaluate(io, evaluationContext);
+            }
+        };
+        EvaluationBatcher batcher = new EvaluationBatcher(
+            evaluator, 8, Duration.ofMillis(200), Duration.ofSeconds(10), 1
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<TensorIO>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> batcher.evaluate(
+                    new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{1f, 2f}))),
+                    new EvaluationContext()
+                )));
+            }
+            for (Future<TensorIO> result : results) {
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        TensorIO output = batcher.evaluate(
+            new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{1f, 2f}))),
+            new EvaluationContext()
+        );
+        assertArrayEquals(new float[]{2f, 4f}, (float[]) output.getTensor("output").getData());
+    }
+
+    @Test
+    void testTimedOutEvaluationIsWithdrawn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Float> evaluated = Collections.synchronizedList(new ArrayList<>());
+        DoublingEvaluator evaluator = new DoublingEvaluator() {
+            @Override
+            public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+                for (float value : (float[]) io.getTensor("input").getData()) {
+                    evaluated.add(value);
+                }
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.evaluate(io, evaluationContext);
+            }
+        };
+        EvaluationBatcher batcher = new EvaluationBatcher(
+            evaluator, 8, Duration.ofMillis(10), Duration.ofMillis(200), 1
+        );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Keep the worker busy
+            Future<TensorIO> first = executor.submit(() -> batcher.evaluate(
+                new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{1f}))),
+                new EvaluationContext()
+            ));
+            while (evaluated.isEmpty()) {
+                Thread.sleep(5);
+            }
+            assertThrows(ServiceUnavailableException.class, () -> batcher.evaluate(
+                new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{2f}))),
+                new EvaluationContext()
+            ));
+            release.countDown();
+            // The busy caller may have timed out as well, only the evaluations done matter
+            try {
+                first.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException ignored) {
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        TensorIO output = batcher.evaluate(
+            new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{3f}))),
+            new EvaluationContext()
+        );
+        assertArrayEquals(new float[]{6f}, (float[]) output.getTensor("output").getData());
+        assertEquals(List.of(1f, 3f), evaluated);
+    }
+
+    @Test
+    void testDebugEvaluationIsNotBatched() {
+        DoublingEvaluator evaluator = new DoublingEvaluator();
+        EvaluationBatcher batcher = new EvaluationBatcher(
+            evaluator, 8, Duration.ofSeconds(10), Duration.ofSeconds(10), 1
+        );
+        TensorIO output = batcher.evaluate(
+            new TensorIO(Map.of("input", Tensor.fromData(DataType.FLOAT, new float[]{1f}))),
+            new EvaluationContext("output:0")
+        );
+        assertArrayEquals(new float[]{2f}, (float[]) output.getTensor("output").getData());
+    }
+}
@@ -0,0 +1,41 @@
+package com.ovh.mls.serving.runtime;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.Field;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
+import com.ovh.mls.serving.runtime.core.tensor.TensorIndex;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EvaluationResourceTest {
+
+    private static final List<Field> OUTPUTS = List.of(
+        new Field("label", DataType.STRING),
+        new TensorField("scores", DataType.FLOAT, new int[]{-1, 2}, List.of(
+            new TensorIndex("score_0", 0),
+            new TensorIndex("score_1", 1)
+        ))
+    );
+
+    @Test
+    void testKnownRequestedOutputs() {
+        assertDoesNotThrow(() -> EvaluationResource.checkRequestedOutputs(Set.of("label", "score_1"), OUTPUTS));
+        assertDoesNotThrow(() -> EvaluationResource.checkRequestedOutputs(Set.of(), OUTPUTS));
+    }
+
+    @Test
+    void testUnknownRequestedOutputs() {
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> EvaluationResource.checkRequestedOutputs(Set.of("label", "lable", "score_2"), OUTPUTS)
+        );
+        assertEquals("Unknown requested outputs: [lable, score_2]", exception.getMessage());
+    }
+}
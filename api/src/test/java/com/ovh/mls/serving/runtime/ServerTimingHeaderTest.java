@@ -0,0 +1,39 @@
+package com.ovh.mls.serving.runtime;
+
+import com.ovh.mls.serving.runtime.core.EvaluationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerTimingHeaderTest {
+
+    @Test
+    public void formatRecordedTimings() {
+        EvaluationContext context = new EvaluationContext();
+        context.enableTimings();
+        context.recordTimings(List.of(
+            new EvaluationContext.Timing("parse", null, 1_500_000),
+            new EvaluationContext.Timing("e0", "OnnxEvaluator", 12_345_678)
+        ));
+        context.setBatchSize(4);
+
+        assertEquals(
+            "parse;dur=1.500, e0;dur=12.346;desc=\"OnnxEvaluator\", batch;desc=\"4\"",
+            ServerTimingHeader.format(context)
+        );
+    }
+
+    @Test
+    public void timingsAreOnlyRecordedWhenEnabled() {
+        EvaluationContext context = new EvaluationContext();
+        context.recordTiming("parse", null, System.nanoTime());
+        assertTrue(context.getTimings().isEmpty());
+
+        context.enableTimings();
+        context.fork(null, "0").recordTiming("e0", null, System.nanoTime());
+        assertEquals("e0", context.getTimings().get(0).getName());
+    }
+}
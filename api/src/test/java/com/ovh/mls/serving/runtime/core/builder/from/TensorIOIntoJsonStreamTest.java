@@ -0,0 +1,52 @@
+package com.ovh.mls.serving.runtime.core.builder.from;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
+import com.ovh.mls.serving.runtime.core.tensor.TensorShape;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TensorIOIntoJsonStreamTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void testSameJsonAsMap() throws IOException {
+        TensorIO tensorIO = new TensorIO(Map.of(
+            "flat", Tensor.fromBuffer(
+                DataType.FLOAT,
+                new int[]{2, 1, 3},
+                new TensorBuffer(DataType.FLOAT, new float[]{1f, 2.5f, 3f, 4f, 5f, Float.NaN})
+            ),
+            "nullable", Tensor.fromBuffer(
+                DataType.INTEGER,
+                new int[]{3},
+                new TensorBuffer(DataType.INTEGER, new Integer[]{1, null, 3})
+            ),
+            // Row and column views of a shared storage
+            "rows", Tensor.fromData(DataType.INTEGER, new int[][]{{1, 2}, {3, 4}, {5, 6}}).toFlat()
+                .slice(new TensorShape(new int[]{1, 0}), new TensorShape(new int[]{2, 2})),
+            "column", Tensor.fromData(DataType.DOUBLE, new double[][]{{1d, 2d}, {3d, 4d}}).toFlat()
+                .slice(new TensorShape(new int[]{0, 1}), new TensorShape(new int[]{2, 1})),
+            "nested", Tensor.fromData(DataType.STRING, new String[][]{{"a", "b"}}),
+            "scalar", Tensor.fromData(DataType.LONG, 4L)
+        ));
+
+        for (boolean simplify : new boolean[]{false, true}) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            new TensorIOIntoJsonStream(MAPPER, simplify).build(tensorIO).write(outputStream);
+            assertEquals(
+                MAPPER.readTree(MAPPER.writeValueAsBytes(tensorIO.intoMap(simplify))),
+                MAPPER.readTree(outputStream.toByteArray())
+            );
+        }
+    }
+}
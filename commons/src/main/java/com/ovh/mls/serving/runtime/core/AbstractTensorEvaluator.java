@@ -44,19 +44,29 @@ public abstract class AbstractTensorEvaluator<F extends TensorField> implements
     public TensorIO evaluate(TensorIO tensorIO, EvaluationContext evaluationContext)
         throws EvaluationException {
         // Convert the input TensorIO into the wanted format for the serialized model
+        long start = System.nanoTime();
         TensorIO input = this.inputTensorBuilder.build(tensorIO);
+        EvaluationMetrics.observeEvaluatorStage(evaluationContext, this, EvaluationMetrics.INPUT_BUILDER_STAGE, start);
         // If user ask for debug the input step of that evaluator, return this step
         if (evaluationContext.shouldStop(true)) {
             return input;
         }
-        // Evaluate the serialized model
-        TensorIO output = this.evaluateTensor(input);
+        // Evaluate the serialized model, only for the outputs asked in the context
+        List<F> outputFields = this.getRequestedOutputFields(evaluationContext);
+        start = System.nanoTime();
+        TensorIO output = this.evaluateTensor(input, outputFields);
+        EvaluationMetrics.observeEvaluatorStage(evaluationContext, this, EvaluationMetrics.EVALUATE_STAGE, start);
         // If user ask for debug the output step of that evaluator, return this step
         if (evaluationContext.shouldStop(false)) {
             return output;
         }
         // Convert the output of the model into the simpliest format for the user
-        TensorIO finalOutput = this.outputTensorBuilder.build(output);
+        start = System.nanoTime();
+        Builder<TensorIO, TensorIO> outputBuilder = outputFields == this.outputTensorFields
+            ? this.outputTensorBuilder
+            : new TensorIOIntoTensorIO(outputFields, true);
+        TensorIO finalOutput = outputBuilder.build(output);
+        EvaluationMetrics.observeEvaluatorStage(evaluationContext, this, EvaluationMetrics.OUTPUT_BUILDER_STAGE, start);
         // Increment the evaluation context with the evaluated batch size
         evaluationContext.incEvaluationBy(output.getBatchSize());
         return finalOutput;
@@ -64,6 +74,36 @@ public abstract class AbstractTensorEvaluator<F extends TensorField> implements
 
     protected abstract TensorIO evaluateTensor(TensorIO tensorIO) throws EvaluationException;
 
+    /**
+     * Evaluate the serialized model for the given outputs only
+     * Evaluators able to skip unneeded outputs should override it, by default all outputs are evaluated
+     */
+    protected TensorIO evaluateTensor(TensorIO tensorIO, List<? extends TensorField> outputFields)
+        throws EvaluationException {
+        return this.evaluateTensor(tensorIO);
+    }
+
+    /**
+     * Output fields asked in the evaluation context (directly or through one of their indexes)
+     * All output fields are returned if none of them is asked
+     */
+    private List<F> getRequestedOutputFields(EvaluationContext evaluationContext) {
+        if (evaluationContext.getRequestedOutputs() == null) {
+            return this.outputTensorFields;
+        }
+        List<F> requested = this.outputTensorFields
+            .stream()
+            .filter(field -> evaluationContext.isOutputRequested(field.getName())
+                || (field.getFields() != null && field.getFields()
+                    .stream()
+                    .anyMatch(index -> evaluationContext.isOutputRequested(index.getName()))))
+            .collect(Collectors.toList());
+        if (requested.isEmpty() || requested.size() == this.outputTensorFields.size()) {
+            return this.outputTensorFields;
+        }
+        return requested;
+    }
+
     @Override
     public List<F> getInputs() {
         return new ArrayList<F>(this.inputTensorFields);
@@ -1,5 +1,11 @@
 package com.ovh.mls.serving.runtime.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class EvaluationContext {
     private static final String INPUT_DEBUG_KEY = "input";
@@ -33,6 +39,29 @@ public class EvaluationContext {
      */
     private final boolean shouldSimplify;
 
+    /**
+     * Names of the outputs asked by the user
+     * If null: all outputs are asked
+     */
+    private Set<String> requestedOutputs;
+
+    /**
+     * Position of the evaluator being evaluated in its flow, prefixed by the position of the parent flows if nested
+     * If null: the evaluator is not part of a flow
+     */
+    private String evaluatorIndex;
+
+    /**
+     * Durations of the stages of the evaluation, shared with forked contexts
+     * If null: durations are not recorded
+     */
+    private List<Timing> timings;
+
+    /**
+     * Number of rows (first dimension) evaluated at once, micro-batched evaluations included
+     */
+    private int batchSize;
+
     public EvaluationContext() {
         this(null);
     }
@@ -61,6 +90,31 @@ public class EvaluationContext {
         }
     }
 
+    private EvaluationContext(EvaluationContext parent, Collection<String> requestedOutputs, String evaluatorIndex) {
+        this.debugStep = parent.debugStep;
+        this.debugInput = parent.debugInput;
+        this.shouldSimplify = parent.shouldSimplify;
+        this.evaluatorIndex = evaluatorIndex;
+        this.timings = parent.timings;
+        setRequestedOutputs(requestedOutputs);
+    }
+
+    /**
+     * Context of an evaluation run concurrently with others, with its own counters, requested outputs and evaluator
+     * index. Counters are reported back to this context by {@link #join(EvaluationContext)}
+     */
+    public EvaluationContext fork(Collection<String> requestedOutputs, String evaluatorIndex) {
+        return new EvaluationContext(this, requestedOutputs, evaluatorIndex);
+    }
+
+    /**
+     * Report the counters of a context forked from this one
+     */
+    public synchronized void join(EvaluationContext forked) {
+        this.evaluation += forked.evaluation;
+        this.currentEvaluator += forked.currentEvaluator;
+    }
+
     public void incCurrentEvaluator() {
         this.currentEvaluator++;
     }
@@ -83,7 +137,131 @@ public class EvaluationContext {
             this.debugStep != null && this.debugStep == this.currentEvaluator;
     }
 
+    /**
+     * Whether the user asked for debugging of an evaluator, in which case evaluators must run one after the other
+     */
+    public boolean isDebugging() {
+        return this.debugStep != null;
+    }
+
     public boolean shouldSimplify() {
         return shouldSimplify;
     }
+
+    public Set<String> getRequestedOutputs() {
+        return requestedOutputs;
+    }
+
+    /**
+     * Restrict the evaluation to the given outputs, all outputs being evaluated if null or empty
+     */
+    public void setRequestedOutputs(Collection<String> requestedOutputs) {
+        if (requestedOutputs == null || requestedOutputs.isEmpty()) {
+            this.requestedOutputs = null;
+        } else {
+            this.requestedOutputs = new HashSet<>(requestedOutputs);
+        }
+    }
+
+    /**
+     * Index of the evaluator being evaluated, as a dotted path for nested flows (null outside of a flow)
+     */
+    public String getEvaluatorIndex() {
+        return evaluatorIndex;
+    }
+
+    public void setEvaluatorIndex(String evaluatorIndex) {
+        this.evaluatorIndex = evaluatorIndex;
+    }
+
+    /**
+     * Index of the given step of a flow evaluated in this context
+     */
+    public String childEvaluatorIndex(int step) {
+        return evaluatorIndex != null ? evaluatorIndex + "." + step : String.valueOf(step);
+    }
+
+    public boolean isOutputRequested(String name) {
+        return this.requestedOutputs == null || this.requestedOutputs.contains(name);
+    }
+
+    /**
+     * Start recording the durations of the stages of the evaluation
+     */
+    public void enableTimings() {
+        if (this.timings == null) {
+            this.timings = Collections.synchronizedList(new ArrayList<>());
+        }
+    }
+
+    public boolean isTimingEnabled() {
+        return this.timings != null;
+    }
+
+    /**
+     * Record the duration of a stage started at the given {@link System#nanoTime()}, if timings are enabled
+     *
+     * @param description Optional description of the stage
+     */
+    public void recordTiming(String name, String description, long startNanos) {
+        if (this.timings != null) {
+            this.timings.add(new Timing(name, description, System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Record the durations of the stages of another evaluation, if timings are enabled
+     */
+    public void recordTimings(Collection<Timing> otherTimings) {
+        if (this.timings != null) {
+            this.timings.addAll(otherTimings);
+        }
+    }
+
+    /**
+     * Recorded durations in recording order, empty if timings are not enabled
+     */
+    public List<Timing> getTimings() {
+        if (this.timings == null) {
+            return List.of();
+        }
+        synchronized (this.timings) {
+            return new ArrayList<>(this.timings);
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Duration of a stage of an evaluation
+     */
+    public static class Timing {
+        private final String name;
+        private final String description;
+        private final long durationNanos;
+
+        public Timing(String name, String description, long durationNanos) {
+            this.name = name;
+            this.description = description;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.ovh.mls.serving.runtime.core;
+
+import io.prometheus.client.Histogram;
+
+/**
+ * Latency histograms of the stages of an evaluation, measured with {@link System#nanoTime()}
+ */
+public final class EvaluationMetrics {
+
+    public static final String DECODE_STAGE = "decode";
+    public static final String ENCODE_STAGE = "encode";
+    public static final String INPUT_BUILDER_STAGE = "input_builder";
+    public static final String EVALUATE_STAGE = "evaluate";
+    public static final String OUTPUT_BUILDER_STAGE = "output_builder";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    // Buckets from 10 microseconds to about 10 seconds
+    private static final double BUCKETS_START = 0.00001;
+    private static final double BUCKETS_FACTOR = 2;
+    private static final int BUCKETS_COUNT = 21;
+
+    private static final Histogram REQUEST_STAGE_LATENCY = Histogram.build()
+        .name("evaluator_request_stage_latency_seconds")
+        .help("Latency of the decoding of requests and the encoding of responses in seconds")
+        .labelNames("stage")
+        .exponentialBuckets(BUCKETS_START, BUCKETS_FACTOR, BUCKETS_COUNT)
+        .register();
+
+    private static final Histogram EVALUATOR_STAGE_LATENCY = Histogram.build()
+        .name("evaluator_stage_latency_seconds")
+        .help("Latency of the stages of each evaluator in seconds")
+        .labelNames("evaluator", "type", "stage")
+        .exponentialBuckets(BUCKETS_START, BUCKETS_FACTOR, BUCKETS_COUNT)
+        .register();
+
+    private EvaluationMetrics() {
+    }
+
+    /**
+     * Observe the latency of a request stage started at the given time
+     */
+    public static void observeRequestStage(String stage, long startNanos) {
+        REQUEST_STAGE_LATENCY.labels(stage).observe((System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Observe the latency of a stage of the evaluator currently evaluated in the given context
+     */
+    public static void observeEvaluatorStage(
+        EvaluationContext evaluationContext,
+        Evaluator<?> evaluator,
+        String stage,
+        long startNanos
+    ) {
+        // An evaluator outside of a flow is the first and only one
+        String index = evaluationContext.getEvaluatorIndex() != null ? evaluationContext.getEvaluatorIndex() : "0";
+        EVALUATOR_STAGE_LATENCY
+            .labels(index, evaluator.getClass().getSimpleName(), stage)
+            .observe((System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+    }
+}
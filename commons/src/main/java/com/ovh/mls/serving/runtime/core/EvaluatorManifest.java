@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
 
 import java.io.IOException;
 
@@ -16,6 +17,13 @@ public interface EvaluatorManifest {
 
     Evaluator create(String path) throws EvaluatorException, IOException;
 
+    /**
+     * Create the evaluator, manifests whose defaults can be set for a whole deployment reading them from the config
+     */
+    default Evaluator create(String path, Config evaluatorConfig) throws EvaluatorException, IOException {
+        return create(path);
+    }
+
     String getType();
 
 }
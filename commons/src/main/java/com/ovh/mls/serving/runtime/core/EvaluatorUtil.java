@@ -176,7 +176,7 @@ public class EvaluatorUtil {
             var fileInputStream = new FileInputStream(file);
             final EvaluatorManifest evaluatorManifest = this.deserializeManifestFromIS(fileInputStream);
             LOGGER.info("Creating the evaluator with manifest file {}", file.getPath());
-            return Optional.ofNullable(evaluatorManifest.create(fileParent));
+            return Optional.ofNullable(evaluatorManifest.create(fileParent, evaluatorConfig));
         } catch (IOException e) {
             LOGGER.info(
                 "Seems like this manifest json schema is not valid, {}, error: {}", file.getPath(), e.getMessage()
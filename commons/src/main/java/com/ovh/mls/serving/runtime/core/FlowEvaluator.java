@@ -1,35 +1,94 @@
 package com.ovh.mls.serving.runtime.core;
 
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import com.ovh.mls.serving.runtime.validation.Validator;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import org.apache.commons.collections4.SetUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class FlowEvaluator implements Evaluator {
+    private static final int MAX_CACHED_PLANS = 64;
+
     private final List<? extends Field> inputs;
     private final List<? extends Field> outputs;
     private final int rollingWindowsSize;
     private final List<Evaluator<?>> evaluators;
 
+    /**
+     * For each evaluator, names of the fields it reads and produces
+     */
+    private final List<Set<String>> reads;
+    private final List<Set<String>> writes;
+
+    /**
+     * Names of the outputs of the flow, kept until the end of an evaluation
+     */
+    private final Set<String> outputNames;
+
+    /**
+     * Plan used when no specific outputs are requested, and plans already computed for requested outputs
+     */
+    private final FlowPlan defaultPlan;
+    private final Map<Set<String>, FlowPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * For each evaluator, indexes of the previous evaluators it has to run after
+     */
+    private final List<Set<Integer>> dependencies;
+
+    /**
+     * Executor running independent evaluators concurrently, null if evaluators run one after the other
+     */
+    private final ExecutorService executor;
+
     private FlowEvaluator(
         List<Evaluator<?>> evaluators,
         List<? extends Field> inputs,
         List<? extends Field> outputs,
-        int rollingWindowsSize
+        int rollingWindowsSize,
+        Integer parallelism
     ) {
         this.evaluators = evaluators;
         this.inputs = inputs;
         this.outputs = outputs;
         this.rollingWindowsSize = rollingWindowsSize;
+
+        this.reads = new ArrayList<>(evaluators.size());
+        this.writes = new ArrayList<>(evaluators.size());
+        for (Evaluator<?> evaluator : evaluators) {
+            this.reads.add(fieldNames(evaluator.getInputs()));
+            this.writes.add(fieldNames(evaluator.getOutputs()));
+        }
+        this.outputNames = fieldNames(outputs);
+        this.defaultPlan = FlowPlan.create(this.reads, this.writes, this.outputNames, null, true);
+
+        this.dependencies = computeDependencies(this.reads, this.writes);
+        int threads = parallelism != null
+            ? parallelism
+            : Math.min(computeWidth(this.dependencies), Runtime.getRuntime().availableProcessors());
+        this.executor = threads > 1 ? createExecutor(threads) : null;
     }
 
     /**
@@ -47,6 +106,16 @@ public class FlowEvaluator implements Evaluator {
      */
     public static FlowEvaluator create(FlowEvaluatorManifest flowEvaluatorManifest, String path)
         throws EvaluatorException, IOException {
+        return create(flowEvaluatorManifest, path, ConfigFactory.empty());
+    }
+
+    /**
+     * Instantiate a FlowEvaluator, underlying evaluators being created with the given evaluator config
+     *
+     * @see #create(FlowEvaluatorManifest, String)
+     */
+    public static FlowEvaluator create(FlowEvaluatorManifest flowEvaluatorManifest, String path, Config evaluatorConfig)
+        throws EvaluatorException, IOException {
 
         List<EvaluatorManifest> evaluatorManifests = flowEvaluatorManifest.getEvaluatorManifests();
 
@@ -58,7 +127,7 @@ public class FlowEvaluator implements Evaluator {
         for (EvaluatorManifest evaluatorManifest : evaluatorManifests) {
 
             // instantiate evaluators
-            Evaluator<?> evaluator = evaluatorManifest.create(path);
+            Evaluator<?> evaluator = evaluatorManifest.create(path, evaluatorConfig);
             Validator.validate(evaluator);
             evaluators.add(evaluator);
 
@@ -103,7 +172,84 @@ public class FlowEvaluator implements Evaluator {
             }
         }
 
-        return new FlowEvaluator(evaluators, new LinkedList<>(pureInputSet), actualOutputs, batchSize);
+        Integer parallelism = evaluatorConfig.hasPath("flow.parallelism")
+            ? evaluatorConfig.getInt("flow.parallelism")
+            : null;
+        return new FlowEvaluator(evaluators, new LinkedList<>(pureInputSet), actualOutputs, batchSize, parallelism);
+    }
+
+    /**
+     * Names of the given fields and of their indexes
+     */
+    private static Set<String> fieldNames(List<? extends Field> fields) {
+        Set<String> names = new HashSet<>();
+        for (Field field : fields) {
+            names.add(field.getName());
+            if (field instanceof TensorField && ((TensorField) field).getFields() != null) {
+                ((TensorField) field).getFields().forEach(index -> names.add(index.getName()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * An evaluator runs after the previous ones producing a field it reads, producing a same field or reading a field
+     * it produces, so that results are the same as when evaluators run in order.
+     * Evaluators without declared inputs or outputs run after all the previous ones and before all the next ones.
+     */
+    private static List<Set<Integer>> computeDependencies(List<Set<String>> reads, List<Set<String>> writes) {
+        List<Set<Integer>> dependencies = new ArrayList<>(reads.size());
+        for (int j = 0; j < reads.size(); j++) {
+            Set<Integer> stepDependencies = new HashSet<>();
+            for (int i = 0; i < j; i++) {
+                boolean barrier = reads.get(i).isEmpty() || writes.get(i).isEmpty()
+                    || reads.get(j).isEmpty() || writes.get(j).isEmpty();
+                if (
+                    barrier
+                        || !Collections.disjoint(writes.get(i), reads.get(j))
+                        || !Collections.disjoint(writes.get(i), writes.get(j))
+                        || !Collections.disjoint(reads.get(i), writes.get(j))
+                ) {
+                    stepDependencies.add(i);
+                }
+            }
+            dependencies.add(stepDependencies);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Maximum number of evaluators that can run at the same time, evaluators being grouped by depth in the graph
+     */
+    private static int computeWidth(List<Set<Integer>> dependencies) {
+        int[] depths = new int[dependencies.size()];
+        Map<Integer, Integer> widths = new HashMap<>();
+        int width = 0;
+        for (int j = 0; j < dependencies.size(); j++) {
+            for (int i : dependencies.get(j)) {
+                depths[j] = Math.max(depths[j], depths[i] + 1);
+            }
+            width = Math.max(width, widths.merge(depths[j], 1, Integer::sum));
+        }
+        return width;
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "flow-evaluator-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -116,16 +262,44 @@ public class FlowEvaluator implements Evaluator {
             );
         }
 
+        // Each evaluator has to produce the asked outputs and the fields read by the next evaluators
+        Set<String> requestedOutputs = evaluationContext.getRequestedOutputs();
+
+        // When debugging, every evaluator runs and every intermediate field is kept
+        FlowPlan plan = evaluationContext.isDebugging()
+            ? FlowPlan.create(reads, writes, outputNames, requestedOutputs, false)
+            : getPlan(requestedOutputs);
+        FlowPlan.Releaser releaser = plan.startEvaluation();
+        String parentIndex = evaluationContext.getEvaluatorIndex();
+
         TensorIO lastIO = new TensorIO();
         lastIO.merge(io);
-        for (Evaluator<?> evaluator : evaluators) {
-            lastIO.merge(evaluator.evaluate(lastIO, evaluationContext));
-            if (
-                evaluationContext.shouldStop(true) || evaluationContext.shouldStop(false)
-            ) {
-                return lastIO;
+        if (executor != null && !evaluationContext.isDebugging()) {
+            evaluateConcurrently(lastIO, evaluationContext, plan, releaser);
+        } else {
+            for (int i = 0; i < evaluators.size(); i++) {
+                if (!plan.isNeeded(i)) {
+                    continue;
+                }
+                String evaluatorIndex = evaluationContext.childEvaluatorIndex(i);
+                evaluationContext.setRequestedOutputs(plan.getNeededOutputs(i));
+                evaluationContext.setEvaluatorIndex(evaluatorIndex);
+                long start = System.nanoTime();
+                try {
+                    lastIO.merge(evaluators.get(i).evaluate(lastIO, evaluationContext));
+                    recordStepTiming(evaluationContext, i, evaluatorIndex, start);
+                } finally {
+                    evaluationContext.setRequestedOutputs(requestedOutputs);
+                    evaluationContext.setEvaluatorIndex(parentIndex);
+                }
+                if (
+                    evaluationContext.shouldStop(true) || evaluationContext.shouldStop(false)
+                ) {
+                    return lastIO;
+                }
+                evaluationContext.incCurrentEvaluator();
+                releaser.afterStep(i, lastIO);
             }
-            evaluationContext.incCurrentEvaluator();
         }
 
         // Retain only needed outputs fields
@@ -137,6 +311,96 @@ public class FlowEvaluator implements Evaluator {
         return lastIO;
     }
 
+    /**
+     * Run each evaluator as soon as the evaluators it depends on are done, on the executor of this flow
+     */
+    private void evaluateConcurrently(
+        TensorIO lastIO,
+        EvaluationContext evaluationContext,
+        FlowPlan plan,
+        FlowPlan.Releaser releaser
+    ) throws EvaluationException {
+        List<CompletableFuture<Void>> steps = new ArrayList<>(evaluators.size());
+        for (int i = 0; i < evaluators.size(); i++) {
+            if (!plan.isNeeded(i)) {
+                steps.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            int step = i;
+            CompletableFuture<?>[] stepDependencies = dependencies.get(i)
+                .stream()
+                .map(steps::get)
+                .toArray(CompletableFuture[]::new);
+            steps.add(CompletableFuture.allOf(stepDependencies).thenRunAsync(
+                () -> evaluateStep(step, lastIO, evaluationContext, plan, releaser),
+                executor
+            ));
+        }
+
+        try {
+            CompletableFuture.allOf(steps.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new EvaluationException(e);
+        }
+    }
+
+    /**
+     * Evaluate one step on a snapshot of the fields computed so far, merging its results once done
+     */
+    private void evaluateStep(
+        int step,
+        TensorIO lastIO,
+        EvaluationContext evaluationContext,
+        FlowPlan plan,
+        FlowPlan.Releaser releaser
+    ) throws EvaluationException {
+        TensorIO stepInput;
+        synchronized (lastIO) {
+            stepInput = new TensorIO(new HashMap<>(lastIO.getTensors()));
+        }
+        EvaluationContext stepContext = evaluationContext.fork(
+            plan.getNeededOutputs(step),
+            evaluationContext.childEvaluatorIndex(step)
+        );
+        long start = System.nanoTime();
+        TensorIO stepOutput = evaluators.get(step).evaluate(stepInput, stepContext);
+        recordStepTiming(stepContext, step, stepContext.getEvaluatorIndex(), start);
+        stepContext.incCurrentEvaluator();
+        synchronized (lastIO) {
+            lastIO.merge(stepOutput);
+            evaluationContext.join(stepContext);
+            releaser.afterStep(step, lastIO);
+        }
+    }
+
+    private void recordStepTiming(EvaluationContext evaluationContext, int step, String evaluatorIndex, long start) {
+        evaluationContext.recordTiming("e" + evaluatorIndex, evaluators.get(step).getClass().getSimpleName(), start);
+    }
+
+    /**
+     * Plan of the evaluation of the given requested outputs, computed once per distinct set of requested outputs
+     */
+    private FlowPlan getPlan(Set<String> requestedOutputs) {
+        if (requestedOutputs == null) {
+            return defaultPlan;
+        }
+        FlowPlan plan = plans.get(requestedOutputs);
+        if (plan == null) {
+            plan = FlowPlan.create(reads, writes, outputNames, requestedOutputs, true);
+            // Requested outputs come from the requests, only the first distinct sets are kept
+            if (plans.size() < MAX_CACHED_PLANS) {
+                plans.put(Set.copyOf(requestedOutputs), plan);
+            }
+        }
+        return plan;
+    }
+
     @Override
     public List<? extends Field> getInputs() {
         return inputs;
@@ -147,6 +411,10 @@ public class FlowEvaluator implements Evaluator {
         return outputs;
     }
 
+    List<Evaluator<?>> getEvaluators() {
+        return evaluators;
+    }
+
     @Override
     public int getRollingWindowSize() {
         return rollingWindowsSize;
@@ -2,6 +2,7 @@ package com.ovh.mls.serving.runtime.core;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -40,6 +41,11 @@ public class FlowEvaluatorManifest implements EvaluatorManifest {
         return FlowEvaluator.create(this, path);
     }
 
+    @Override
+    public FlowEvaluator create(String path, Config evaluatorConfig) throws EvaluatorException, IOException {
+        return FlowEvaluator.create(this, path, evaluatorConfig);
+    }
+
     @Override
     public String getType() {
         return type;
@@ -0,0 +1,158 @@
+package com.ovh.mls.serving.runtime.core;
+
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Execution plan of a flow for a given set of requested outputs
+ *
+ * Evaluators producing none of the fields needed by the requested outputs are skipped, and intermediate fields are
+ * released from the working TensorIO as soon as the last evaluator reading them has run.
+ * Evaluators without declared inputs are considered as reading every field, and evaluators without declared outputs
+ * as producing needed fields.
+ */
+class FlowPlan {
+
+    private final boolean[] neededSteps;
+
+    /**
+     * For each evaluator, outputs it has to produce, null if all its outputs are requested
+     */
+    private final List<Set<String>> neededOutputs;
+
+    /**
+     * For each evaluator, fields that can be released once it has run, if no other evaluator still reads them
+     */
+    private final List<Set<String>> releasableReads;
+    private final List<Set<String>> releasableWrites;
+
+    /**
+     * Number of evaluators of the plan reading each releasable field
+     */
+    private final Map<String, Integer> readCounts;
+
+    private FlowPlan(
+        boolean[] neededSteps,
+        List<Set<String>> neededOutputs,
+        List<Set<String>> releasableReads,
+        List<Set<String>> releasableWrites,
+        Map<String, Integer> readCounts
+    ) {
+        this.neededSteps = neededSteps;
+        this.neededOutputs = neededOutputs;
+        this.releasableReads = releasableReads;
+        this.releasableWrites = releasableWrites;
+        this.readCounts = readCounts;
+    }
+
+    /**
+     * @param reads Names of the fields read by each evaluator
+     * @param writes Names of the fields produced by each evaluator
+     * @param keptFields Names of the outputs of the flow, never released
+     * @param requestedOutputs Outputs asked for the evaluation, all the outputs of the flow if null
+     * @param prune Whether to skip unneeded evaluators and release intermediate fields
+     */
+    static FlowPlan create(
+        List<Set<String>> reads,
+        List<Set<String>> writes,
+        Set<String> keptFields,
+        Set<String> requestedOutputs,
+        boolean prune
+    ) {
+        int size = reads.size();
+        Set<String> allFields = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            allFields.addAll(reads.get(i));
+            allFields.addAll(writes.get(i));
+        }
+
+        boolean[] neededSteps = new boolean[size];
+        List<Set<String>> neededOutputs = new ArrayList<>(Collections.nCopies(size, null));
+        Set<String> neededFields = new HashSet<>(requestedOutputs != null ? requestedOutputs : keptFields);
+        Set<String> downstreamInputs = new HashSet<>();
+        for (int i = size - 1; i >= 0; i--) {
+            boolean needed = !prune
+                || writes.get(i).isEmpty()
+                || !Collections.disjoint(writes.get(i), neededFields);
+            if (!needed) {
+                continue;
+            }
+            neededSteps[i] = true;
+            if (requestedOutputs != null) {
+                Set<String> stepOutputs = new HashSet<>(requestedOutputs);
+                stepOutputs.addAll(downstreamInputs);
+                neededOutputs.set(i, stepOutputs);
+            }
+            downstreamInputs.addAll(reads.get(i));
+            neededFields.addAll(reads.get(i).isEmpty() ? allFields : reads.get(i));
+        }
+
+        List<Set<String>> releasableReads = new ArrayList<>(size);
+        List<Set<String>> releasableWrites = new ArrayList<>(size);
+        Map<String, Integer> readCounts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Set<String> stepReads = new HashSet<>();
+            Set<String> stepWrites = new HashSet<>();
+            if (prune && neededSteps[i]) {
+                stepReads.addAll(reads.get(i).isEmpty() ? allFields : reads.get(i));
+                stepReads.removeAll(keptFields);
+                stepWrites.addAll(writes.get(i));
+                stepWrites.removeAll(keptFields);
+                stepReads.forEach(field -> readCounts.merge(field, 1, Integer::sum));
+            }
+            releasableReads.add(stepReads);
+            releasableWrites.add(stepWrites);
+        }
+
+        return new FlowPlan(neededSteps, neededOutputs, releasableReads, releasableWrites, readCounts);
+    }
+
+    boolean isNeeded(int step) {
+        return neededSteps[step];
+    }
+
+    Set<String> getNeededOutputs(int step) {
+        return neededOutputs.get(step);
+    }
+
+    /**
+     * Start tracking the fields still to be read during an evaluation
+     */
+    Releaser startEvaluation() {
+        return new Releaser(new HashMap<>(readCounts));
+    }
+
+    /**
+     * Tracks the fields read during one evaluation, not thread safe
+     */
+    class Releaser {
+        private final Map<String, Integer> remainingReads;
+
+        private Releaser(Map<String, Integer> remainingReads) {
+            this.remainingReads = remainingReads;
+        }
+
+        /**
+         * Remove from the given TensorIO the fields no evaluator still has to read once the given one has run
+         */
+        void afterStep(int step, TensorIO io) {
+            for (String field : releasableReads.get(step)) {
+                if (remainingReads.merge(field, -1, Integer::sum) <= 0) {
+                    io.getTensors().remove(field);
+                }
+            }
+            for (String field : releasableWrites.get(step)) {
+                if (remainingReads.getOrDefault(field, 0) <= 0) {
+                    io.getTensors().remove(field);
+                }
+            }
+        }
+    }
+}
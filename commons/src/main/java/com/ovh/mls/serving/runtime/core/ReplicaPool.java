@@ -0,0 +1,146 @@
+package com.ovh.mls.serving.runtime.core;
+
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pool of replicas of a same model (typically one native session each)
+ *
+ * Each call is dispatched to the replica with the fewest calls in flight, idle replicas being picked first.
+ * Replicas are never blocked on: when all of them are busy the call is shared with the least loaded one.
+ * Evaluators keep their pool for the lifetime of the process, closing it releases the replicas implementing
+ * {@link AutoCloseable} (native sessions), other replicas being left to the garbage collector.
+ */
+public class ReplicaPool<T> implements AutoCloseable {
+
+    private final List<T> replicas;
+    private final int[] inFlight;
+
+    /**
+     * Next replica to consider first, so that idle replicas are used in turn
+     */
+    private int next = 0;
+
+    private boolean closed = false;
+
+    public ReplicaPool(List<T> replicas) {
+        if (replicas.isEmpty()) {
+            throw new EvaluatorException("A replica pool needs at least one replica");
+        }
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.inFlight = new int[replicas.size()];
+    }
+
+    /**
+     * Create a pool of the given size, each replica being created by the given factory from its index
+     */
+    public static <T> ReplicaPool<T> create(int size, ReplicaFactory<T> factory) throws EvaluatorException {
+        if (size < 1) {
+            throw new EvaluatorException(String.format("Invalid number of replicas: %s", size));
+        }
+        List<T> replicas = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                replicas.add(factory.create(i));
+            }
+        } catch (RuntimeException e) {
+            // Do not leak the replicas already created
+            try {
+                closeAll(replicas);
+            } catch (EvaluatorException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        return new ReplicaPool<>(replicas);
+    }
+
+    /**
+     * Apply the given function to the least loaded replica
+     */
+    public <R> R apply(Function<T, R> function) {
+        int index = acquire();
+        try {
+            return function.apply(this.replicas.get(index));
+        } finally {
+            release(index);
+        }
+    }
+
+    public List<T> getReplicas() {
+        return replicas;
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    /**
+     * Number of calls currently in flight on each replica
+     */
+    public synchronized int[] getInFlight() {
+        return inFlight.clone();
+    }
+
+    /**
+     * Close every replica implementing {@link AutoCloseable}, the pool must not be used afterwards
+     *
+     * @throws EvaluatorException if a replica could not be closed, after trying to close all of them
+     */
+    @Override
+    public synchronized void close() throws EvaluatorException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        closeAll(this.replicas);
+    }
+
+    private static void closeAll(List<?> replicas) throws EvaluatorException {
+        EvaluatorException failure = null;
+        for (Object replica : replicas) {
+            if (!(replica instanceof AutoCloseable)) {
+                continue;
+            }
+            try {
+                ((AutoCloseable) replica).close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new EvaluatorException("Unable to close replica", e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized int acquire() {
+        int size = this.inFlight.length;
+        int best = this.next;
+        for (int i = 1; i < size && this.inFlight[best] > 0; i++) {
+            int candidate = (this.next + i) % size;
+            if (this.inFlight[candidate] < this.inFlight[best]) {
+                best = candidate;
+            }
+        }
+        this.inFlight[best]++;
+        this.next = (best + 1) % size;
+        return best;
+    }
+
+    private synchronized void release(int index) {
+        this.inFlight[index]--;
+    }
+
+    @FunctionalInterface
+    public interface ReplicaFactory<T> {
+        T create(int index) throws EvaluatorException;
+    }
+}
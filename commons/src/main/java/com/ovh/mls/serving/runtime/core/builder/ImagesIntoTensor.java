@@ -2,7 +2,6 @@ package com.ovh.mls.serving.runtime.core.builder;
 
 import com.ovh.mls.serving.runtime.core.DataType;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
-import com.ovh.mls.serving.runtime.core.tensor.TensorShape;
 import com.ovh.mls.serving.runtime.core.transformer.ImageTransformerInfo;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.utils.img.ImgChanelProperties;
@@ -117,7 +116,9 @@ public class ImagesIntoTensor implements Builder<List<BufferedImage>, Tensor> {
             tensorShapeArray[i] = dimensionSize;
         }
 
-        final Tensor tensor = new Tensor(DataType.INTEGER, new TensorShape(tensorShapeArray));
+        final Tensor tensor = Tensor.flat(DataType.INTEGER, tensorShapeArray);
+        // Coordinates array is reused for each pixel
+        final int[] tensorCoordinates = new int[shapeAttributes.size()];
         for (int imageIndex = 0; imageIndex < imagesList.size(); imageIndex++) {
             BufferedImage image = imagesList.get(imageIndex);
             for (int widthIndex = 0; widthIndex < image.getWidth(); widthIndex++) {
@@ -126,7 +127,6 @@ public class ImagesIntoTensor implements Builder<List<BufferedImage>, Tensor> {
 
                         final ImgChanelProperties chanProp = chanelProperties.get(chanelIndex);
                         final int chanelValue = getChanelValue(image, widthIndex, heightIndex, chanProp);
-                        final int[] tensorCoordinates = new int[shapeAttributes.size()];
 
                         for (int i = 0; i < shapeAttributes.size(); i++) {
                             final int coordinateValue;
@@ -0,0 +1,38 @@
+package com.ovh.mls.serving.runtime.core.builder;
+
+import com.ovh.mls.serving.runtime.core.io.TensorBinaryFormat;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Builder of TensorIO from an InputStream containing tensors in binary format
+ *
+ * @see TensorBinaryFormat
+ */
+public class InputStreamBinaryIntoTensorIO implements Builder<InputStream, TensorIO> {
+
+    private final long maxContentLength;
+
+    public InputStreamBinaryIntoTensorIO() {
+        this(TensorBinaryFormat.DEFAULT_MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * @param maxContentLength Maximum number of bytes of the binary content
+     */
+    public InputStreamBinaryIntoTensorIO(long maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    @Override
+    public TensorIO build(InputStream inputStream) throws EvaluationException {
+        try {
+            return TensorBinaryFormat.read(inputStream, this.maxContentLength);
+        } catch (IOException e) {
+            throw new EvaluationException("Unable to read the given bytes as binary tensors", e);
+        }
+    }
+}
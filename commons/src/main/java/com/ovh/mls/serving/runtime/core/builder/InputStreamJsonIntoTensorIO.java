@@ -1,38 +1,56 @@
 package com.ovh.mls.serving.runtime.core.builder;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.Field;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 
 import java.io.InputStream;
-import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Builder of TensorIO from an InputStream containing a json map of (name -> tensor)
+ * The json is streamed: each tensor is directly read into a flat buffer, using the expected fields (if any) to type
+ * and size it
+ */
 public class InputStreamJsonIntoTensorIO implements Builder<InputStream, TensorIO> {
 
     private final ObjectMapper mapper;
+    private final Map<String, JsonParserIntoTensor> tensorBuilders = new HashMap<>();
+    private final JsonParserIntoTensor defaultTensorBuilder = new JsonParserIntoTensor();
 
     public InputStreamJsonIntoTensorIO(ObjectMapper mapper) {
+        this(mapper, List.of());
+    }
+
+    public InputStreamJsonIntoTensorIO(ObjectMapper mapper, List<Field> fields) {
         this.mapper = mapper;
+        for (Field field : fields) {
+            if (field instanceof TensorField) {
+                this.tensorBuilders.put(field.getName(), new JsonParserIntoTensor((TensorField) field));
+            }
+        }
     }
 
     @Override
     public TensorIO build(InputStream inputStream) throws EvaluationException {
-        try {
-            ObjectIntoTensor tensorBuilder = new ObjectIntoTensor();
-            // The InputStream will be converted into Map<String, Object>
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
-            Map<String, Object> tensors = mapper.readValue(inputStream, typeRef);
-            // Convert the map values (Object) into Tensors
-            Map<String, Tensor> tensorsIO = tensors
-                    .entrySet()
-                    .stream()
-                    .map(x -> new AbstractMap.SimpleEntry<>(x.getKey(), tensorBuilder.build(x.getValue())))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
+        try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new EvaluationException("Expected a json map of (name -> tensor)");
+            }
+            Map<String, Tensor> tensorsIO = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                JsonParserIntoTensor tensorBuilder = this.tensorBuilders.getOrDefault(name, defaultTensorBuilder);
+                tensorsIO.put(name, tensorBuilder.build(parser));
+            }
             return new TensorIO(tensorsIO);
         } catch (Exception e) {
             throw new EvaluationException(
@@ -0,0 +1,403 @@
+package com.ovh.mls.serving.runtime.core.builder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
+import com.ovh.mls.serving.runtime.core.tensor.TensorShape;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builder for reading a single json value
+ * (scalar or Array of [scalar or Array of [scalar or Array of etc...]]) from a JsonParser into a Tensor
+ *
+ * The value is read in a single pass: scalars are written straight into a flat primitive buffer while the shape is
+ * checked. If an expected TensorField is given, its datatype and shape are used to type and size the buffer up front,
+ * otherwise the datatype is inferred the same way as ObjectIntoTensor does.
+ *
+ * The parser is expected to be positioned on the first token of the value and is left on its last token.
+ */
+public class JsonParserIntoTensor implements Builder<JsonParser, Tensor> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final Set<DataType> GUIDED_TYPES = EnumSet.of(
+        DataType.STRING,
+        DataType.INTEGER,
+        DataType.LONG,
+        DataType.FLOAT,
+        DataType.DOUBLE,
+        DataType.BOOLEAN
+    );
+
+    /**
+     * Datatype of the buffer given by the expected field (null if it should be inferred)
+     */
+    private final DataType expectedType;
+
+    /**
+     * Initial capacity of the buffer computed from the shape of the expected field
+     */
+    private final int expectedCapacity;
+
+    public JsonParserIntoTensor() {
+        this(null);
+    }
+
+    public JsonParserIntoTensor(TensorField expectedField) {
+        if (expectedField != null && GUIDED_TYPES.contains(expectedField.getType())) {
+            this.expectedType = expectedField.getType();
+        } else {
+            this.expectedType = null;
+        }
+        this.expectedCapacity = expectedCapacity(expectedField);
+    }
+
+    /**
+     * Compute the number of elements of the expected field, unknown dimensions being considered of size 1
+     */
+    private static int expectedCapacity(TensorField expectedField) {
+        if (expectedField == null || expectedField.getShape() == null) {
+            return DEFAULT_CAPACITY;
+        }
+        long capacity = 1;
+        for (int dimensionSize : expectedField.getShape()) {
+            if (dimensionSize > 0) {
+                capacity *= dimensionSize;
+            }
+        }
+        return (int) Math.min(Math.max(capacity, 1), Integer.MAX_VALUE - 8);
+    }
+
+    @Override
+    public Tensor build(JsonParser parser) throws EvaluationException {
+        try {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return buildScalar(parser);
+            }
+            FlatValues values = new FlatValues(this.expectedType, this.expectedCapacity);
+            List<Integer> shape = new ArrayList<>();
+            int rank = readLayer(parser, values, shape, 0, -1);
+
+            int[] shapeArray = shape.subList(0, rank).stream().mapToInt(x -> x).toArray();
+            if (values.type == null) {
+                throw new EvaluationException("Impossible to find type of tensor : no one where found");
+            }
+            return Tensor.fromBuffer(values.type, shapeArray, values.toBuffer());
+        } catch (IOException e) {
+            throw new EvaluationException("Unable to read tensor from json", e);
+        }
+    }
+
+    /**
+     * Build a scalar tensor from the current token
+     */
+    private Tensor buildScalar(JsonParser parser) throws IOException {
+        FlatValues values = new FlatValues(this.expectedType, 1);
+        values.add(parser, parser.currentToken());
+        if (values.type == null) {
+            throw new EvaluationException("Impossible to find type of tensor : no one where found");
+        }
+        Object value = values.nulls != null ? null : Array.get(values.array, 0);
+        return new Tensor(values.type, new TensorShape(new int[]{}), value, value == null);
+    }
+
+    /**
+     * Read the json array on which the parser is positioned
+     *
+     * @param parser The json parser positioned on START_ARRAY
+     * @param values The flat values in which scalars are written
+     * @param shape The shape found so far (size of the first layer read for each dimension)
+     * @param dimension The dimension of the current layer
+     * @param rank The rank of the tensor (-1 if not known yet)
+     * @return The rank of the tensor
+     */
+    private static int readLayer(
+        JsonParser parser,
+        FlatValues values,
+        List<Integer> shape,
+        int dimension,
+        int rank
+    ) throws IOException {
+        if (rank >= 0 && dimension >= rank) {
+            throw new EvaluationException(
+                String.format(
+                    "Unable to deserialize tensor : a list was found in dimension number %s of a tensor of rank %s",
+                    dimension,
+                    rank
+                )
+            );
+        }
+        if (shape.size() <= dimension) {
+            shape.add(-1);
+        }
+
+        int length = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY) {
+                rank = readLayer(parser, values, shape, dimension + 1, rank);
+            } else {
+                if (rank < 0) {
+                    rank = dimension + 1;
+                } else if (rank != dimension + 1) {
+                    throw new EvaluationException(
+                        String.format(
+                            "Unable to deserialize tensor : all tensor layers should be of type list. Found %s",
+                            token
+                        )
+                    );
+                }
+                values.add(parser, token);
+            }
+            length++;
+        }
+
+        // An empty layer is considered as the last dimension
+        if (length == 0 && rank < 0) {
+            rank = dimension + 1;
+        }
+
+        if (shape.get(dimension) < 0) {
+            shape.set(dimension, length);
+        } else if (shape.get(dimension) != length) {
+            throw new EvaluationException(
+                String.format(
+                    "Dimension number %s is expected to be of size %s but found %s instead",
+                    dimension,
+                    shape.get(dimension),
+                    length
+                )
+            );
+        }
+        return rank;
+    }
+
+    /**
+     * Growable flat storage of the scalars of a tensor, backed by a primitive array
+     * The storage type is widened from INTEGER to LONG and DOUBLE when inferring the datatype
+     */
+    private static final class FlatValues {
+
+        private final boolean fixedType;
+        private final Set<DataType> foundTypes = EnumSet.noneOf(DataType.class);
+
+        private DataType type;
+        private Object array;
+        private int size;
+        private int capacity;
+        private boolean[] nulls;
+
+        private FlatValues(DataType expectedType, int capacity) {
+            this.fixedType = expectedType != null;
+            this.capacity = capacity;
+            if (this.fixedType) {
+                this.allocate(expectedType);
+            }
+        }
+
+        private void allocate(DataType type) {
+            this.type = type;
+            this.array = Array.newInstance(type.getJavaClass(), this.capacity);
+        }
+
+        private void ensureCapacity() {
+            if (this.size < this.capacity) {
+                return;
+            }
+            this.capacity = Math.max(this.capacity * 2, DEFAULT_CAPACITY);
+            if (this.array != null) {
+                Object newArray = Array.newInstance(this.array.getClass().getComponentType(), this.capacity);
+                System.arraycopy(this.array, 0, newArray, 0, this.size);
+                this.array = newArray;
+            }
+            if (this.nulls != null) {
+                this.nulls = Arrays.copyOf(this.nulls, this.capacity);
+            }
+        }
+
+        private void add(JsonParser parser, JsonToken token) throws IOException {
+            this.ensureCapacity();
+            switch (token) {
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    this.addNumber(parser, token);
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    this.addBoolean(token == JsonToken.VALUE_TRUE);
+                    break;
+                case VALUE_STRING:
+                    this.addString(parser.getText());
+                    break;
+                case VALUE_NULL:
+                    this.addNull();
+                    break;
+                default:
+                    throw new EvaluationException(
+                        String.format("Unable to deserialize tensor : unexpected json token %s", token)
+                    );
+            }
+            this.size++;
+        }
+
+        private void addNumber(JsonParser parser, JsonToken token) throws IOException {
+            if (this.fixedType) {
+                switch (this.type) {
+                    case INTEGER:
+                        ((int[]) this.array)[this.size] = parser.getIntValue();
+                        return;
+                    case LONG:
+                        ((long[]) this.array)[this.size] = parser.getLongValue();
+                        return;
+                    case FLOAT:
+                        ((float[]) this.array)[this.size] = parser.getFloatValue();
+                        return;
+                    case DOUBLE:
+                        ((double[]) this.array)[this.size] = parser.getDoubleValue();
+                        return;
+                    case STRING:
+                        ((String[]) this.array)[this.size] = parser.getText();
+                        return;
+                    default:
+                        throw impossibleConversion(parser.getText());
+                }
+            }
+
+            DataType numberType;
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                numberType = DataType.DOUBLE;
+            } else if (parser.getNumberType() == JsonParser.NumberType.INT) {
+                numberType = DataType.INTEGER;
+            } else if (parser.getNumberType() == JsonParser.NumberType.LONG) {
+                numberType = DataType.LONG;
+            } else {
+                throw new EvaluationException(
+                    String.format("Not handle number: %s", parser.getText())
+                );
+            }
+            this.found(numberType);
+            if (this.type == null) {
+                this.allocate(numberType);
+            } else if (numberType.ordinal() > this.type.ordinal()) {
+                this.widen(numberType);
+            }
+
+            switch (this.type) {
+                case INTEGER:
+                    ((int[]) this.array)[this.size] = parser.getIntValue();
+                    break;
+                case LONG:
+                    ((long[]) this.array)[this.size] = parser.getLongValue();
+                    break;
+                default:
+                    ((double[]) this.array)[this.size] = parser.getDoubleValue();
+                    break;
+            }
+        }
+
+        private void addBoolean(boolean value) {
+            if (this.fixedType) {
+                if (this.type == DataType.BOOLEAN) {
+                    ((boolean[]) this.array)[this.size] = value;
+                } else if (this.type == DataType.STRING) {
+                    ((String[]) this.array)[this.size] = Boolean.toString(value);
+                } else {
+                    throw impossibleConversion(Boolean.toString(value));
+                }
+                return;
+            }
+            this.found(DataType.BOOLEAN);
+            if (this.type == null) {
+                this.allocate(DataType.BOOLEAN);
+            }
+            ((boolean[]) this.array)[this.size] = value;
+        }
+
+        private void addString(String value) {
+            if (this.fixedType && this.type != DataType.STRING) {
+                throw impossibleConversion(value);
+            }
+            if (!this.fixedType) {
+                this.found(DataType.STRING);
+                if (this.type == null) {
+                    this.allocate(DataType.STRING);
+                }
+            }
+            ((String[]) this.array)[this.size] = value;
+        }
+
+        private void addNull() {
+            if (this.nulls == null) {
+                this.nulls = new boolean[this.capacity];
+            }
+            this.nulls[this.size] = true;
+        }
+
+        /**
+         * Remember the datatype of a scalar and fail if it can't be mixed with the datatypes already found
+         */
+        private void found(DataType type) {
+            if (this.foundTypes.add(type) && this.foundTypes.size() > 1
+                && !this.foundTypes.stream().allMatch(DataType::isNumberType)) {
+                List<DataType> sortedList = new ArrayList<>(this.foundTypes);
+                sortedList.sort(Comparator.comparing(DataType::toString));
+                throw new EvaluationException(
+                    String.format(
+                        "Impossible to find type of tensor : several where found %s",
+                        Arrays.toString(sortedList.toArray())
+                    )
+                );
+            }
+        }
+
+        /**
+         * Convert already stored numbers into a wider number datatype
+         */
+        private void widen(DataType type) {
+            Object previous = this.array;
+            this.allocate(type);
+            for (int i = 0; i < this.size; i++) {
+                Array.set(this.array, i, type.convert(Array.get(previous, i)));
+            }
+        }
+
+        private EvaluationException impossibleConversion(String value) {
+            return new EvaluationException(
+                String.format("Impossible to convert %s into %s", value, this.type)
+            );
+        }
+
+        /**
+         * Create the buffer of the exact size, using boxed values if null values were found
+         */
+        private TensorBuffer toBuffer() {
+            if (this.nulls == null || this.type == DataType.STRING) {
+                Object result = this.array;
+                if (this.capacity != this.size) {
+                    result = Array.newInstance(this.array.getClass().getComponentType(), this.size);
+                    System.arraycopy(this.array, 0, result, 0, this.size);
+                }
+                return new TensorBuffer(this.type, result);
+            }
+            TensorBuffer result = TensorBuffer.allocate(this.type, this.size, true);
+            for (int i = 0; i < this.size; i++) {
+                if (!this.nulls[i]) {
+                    result.set(i, Array.get(this.array, i));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -77,14 +77,15 @@ public class TensorIntoImages implements Builder<Tensor, List<BufferedImage>> {
         }
 
         List<BufferedImage> images = new ArrayList<>();
+        // Coordinates arrays are reused for each pixel
+        final int[] coordChanel = new int[chanelSize];
+        final int[] coordTensor = new int[shape.length];
         for (int batchIndex = 0; batchIndex < batchSize; batchIndex++) {
             final int imageType = getImageType();
             final BufferedImage image = new BufferedImage(width, height, imageType);
             for (int widthIndex = 0; widthIndex < width; widthIndex++) {
                 for (int heightIndex = 0; heightIndex < height; heightIndex++) {
-                    int[] coordChanel = new int[chanelSize];
                     for (int chanelIndex = 0; chanelIndex < chanelSize; chanelIndex++) {
-                        int[] coordTensor = new int[shape.length];
                         for (int i = 0; i < coordTensor.length; i++) {
                             switch (shapeAttributes.get(i)) {
                                 case BATCH_SIZE:
@@ -0,0 +1,369 @@
+package com.ovh.mls.serving.runtime.core.io;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary representation of a TensorIO served with the 'application/x-serving-tensor' media type
+ *
+ * All numbers are little-endian:
+ * - int32: number of tensors
+ * - for each tensor:
+ *   - int32 length + UTF-8 bytes: name of the tensor
+ *   - int8: datatype (0: string, 1: integer, 2: long, 3: float, 4: double, 5: boolean)
+ *   - int32 rank, then int32 size of each dimension
+ *   - elements in row-major order: raw int32, int64, float32 or float64 values, one byte per boolean and
+ *     int32 length (-1 for null) + UTF-8 bytes per string
+ *
+ * Null numbers and booleans can't be represented and are written as 0 and false.
+ */
+public final class TensorBinaryFormat {
+
+    public static final String MIME_TYPE = "application/x-serving-tensor";
+    public static final ContentType CONTENT_TYPE = ContentType.create(MIME_TYPE);
+
+    /**
+     * Maximum size of a binary content read when none is given
+     */
+    public static final long DEFAULT_MAX_CONTENT_LENGTH = 1L << 30;
+
+    /**
+     * Maximum number of dimensions of a tensor
+     */
+    private static final int MAX_RANK = 32;
+
+    /**
+     * Number of elements written or read at once
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    private TensorBinaryFormat() {
+    }
+
+    /**
+     * Read a TensorIO from its binary representation, of at most {@link #DEFAULT_MAX_CONTENT_LENGTH} bytes
+     */
+    public static TensorIO read(InputStream inputStream) throws IOException {
+        return read(inputStream, DEFAULT_MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * Read a TensorIO from its binary representation
+     *
+     * Sizes are checked against the given maximum content length before any allocation: a tensor array is only
+     * allocated if the remaining content can hold it, and is then filled chunk by chunk from the stream.
+     *
+     * @param maxContentLength Maximum number of bytes of the binary representation
+     */
+    public static TensorIO read(InputStream inputStream, long maxContentLength) throws IOException {
+        ContentReader reader = new ContentReader(inputStream, maxContentLength);
+        int tensorCount = reader.readInt();
+        if (tensorCount < 0) {
+            throw new EvaluationException(String.format("Invalid number of tensors %s", tensorCount));
+        }
+        Map<String, Tensor> tensors = new HashMap<>();
+        for (int t = 0; t < tensorCount; t++) {
+            String name = reader.readString();
+            if (name == null) {
+                throw new EvaluationException("A tensor name can't be null");
+            }
+            DataType type = fromCode(reader.readBytes(1)[0]);
+            int rank = reader.readInt();
+            if (rank < 0 || rank > MAX_RANK) {
+                throw new EvaluationException(String.format("Invalid rank %s of tensor %s", rank, name));
+            }
+            int[] shape = new int[rank];
+            long size = 1;
+            for (int i = 0; i < rank; i++) {
+                shape[i] = reader.readInt();
+                if (shape[i] < 0) {
+                    throw new EvaluationException(
+                        String.format("Invalid size %s for dimension %s of tensor %s", shape[i], i, name)
+                    );
+                }
+                size = multiplyExact(size, shape[i], name);
+            }
+            // Each element takes at least one byte (four for the length of a string)
+            if (size > Integer.MAX_VALUE || multiplyExact(size, minElementSize(type), name) > reader.remaining) {
+                throw new EvaluationException(String.format("Tensor %s is too big", name));
+            }
+            Object data = readData(reader, type, (int) size);
+            tensors.put(name, Tensor.fromBuffer(type, shape, new TensorBuffer(type, data)));
+        }
+        return new TensorIO(tensors);
+    }
+
+    private static long multiplyExact(long x, long y, String name) {
+        try {
+            return Math.multiplyExact(x, y);
+        } catch (ArithmeticException e) {
+            throw new EvaluationException(String.format("Tensor %s is too big", name));
+        }
+    }
+
+    private static Object readData(ContentReader reader, DataType type, int size) throws IOException {
+        switch (type) {
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+                Object array = TensorBuffer.allocate(type, size).getArray();
+                reader.readArray(array, type, size);
+                return array;
+            default:
+                String[] strings = new String[size];
+                for (int i = 0; i < size; i++) {
+                    strings[i] = reader.readString();
+                }
+                return strings;
+        }
+    }
+
+    private static int minElementSize(DataType type) {
+        switch (type) {
+            case BOOLEAN:
+                return 1;
+            case STRING:
+                return Integer.BYTES;
+            default:
+                return elementSize(type);
+        }
+    }
+
+    /**
+     * Write the binary representation of a TensorIO
+     */
+    public static void write(TensorIO tensorIO, OutputStream outputStream) throws IOException {
+        ByteBuffer header = littleEndian(new byte[Integer.BYTES]);
+        header.putInt(tensorIO.getTensors().size());
+        outputStream.write(header.array());
+        for (Map.Entry<String, Tensor> entry : tensorIO.getTensors().entrySet()) {
+            Tensor tensor = entry.getValue();
+            int[] shape = tensor.getShapeAsArray();
+            byte code = toCode(tensor.getType());
+
+            writeString(outputStream, entry.getKey());
+            header = littleEndian(new byte[1 + Integer.BYTES * (shape.length + 1)]);
+            header.put(code);
+            header.putInt(shape.length);
+            for (int dimensionSize : shape) {
+                header.putInt(dimensionSize);
+            }
+            outputStream.write(header.array());
+            writeData(outputStream, nonNullable(tensor.getBuffer()));
+        }
+    }
+
+    /**
+     * Replace null numbers and booleans by default values
+     */
+    private static TensorBuffer nonNullable(TensorBuffer buffer) {
+        if (!buffer.isNullable()) {
+            return buffer;
+        }
+        TensorBuffer result = TensorBuffer.allocate(buffer.getType(), buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            result.setFrom(i, buffer, i);
+        }
+        return result;
+    }
+
+    private static void writeData(OutputStream outputStream, TensorBuffer buffer) throws IOException {
+        Object array = buffer.getArray();
+        int length = buffer.length();
+        if (array instanceof String[]) {
+            for (String value : (String[]) array) {
+                writeString(outputStream, value);
+            }
+            return;
+        }
+        if (array instanceof boolean[]) {
+            boolean[] booleans = (boolean[]) array;
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (booleans[i] ? 1 : 0);
+            }
+            outputStream.write(bytes);
+            return;
+        }
+
+        int elementSize = elementSize(buffer.getType());
+        ByteBuffer chunk = littleEndian(new byte[Math.min(length, CHUNK_SIZE) * elementSize]);
+        for (int from = 0; from < length; from += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, length - from);
+            chunk.clear();
+            if (array instanceof int[]) {
+                chunk.asIntBuffer().put((int[]) array, from, count);
+            } else if (array instanceof long[]) {
+                chunk.asLongBuffer().put((long[]) array, from, count);
+            } else if (array instanceof float[]) {
+                chunk.asFloatBuffer().put((float[]) array, from, count);
+            } else {
+                chunk.asDoubleBuffer().put((double[]) array, from, count);
+            }
+            outputStream.write(chunk.array(), 0, count * elementSize);
+        }
+    }
+
+    private static int elementSize(DataType type) {
+        switch (type) {
+            case INTEGER:
+            case FLOAT:
+                return Integer.BYTES;
+            default:
+                return Long.BYTES;
+        }
+    }
+
+    private static byte toCode(DataType type) {
+        if (type == null) {
+            throw new EvaluationException("Impossible to write a tensor without datatype as binary content");
+        }
+        switch (type) {
+            case STRING:
+                return 0;
+            case INTEGER:
+                return 1;
+            case LONG:
+                return 2;
+            case FLOAT:
+                return 3;
+            case DOUBLE:
+                return 4;
+            case BOOLEAN:
+                return 5;
+            default:
+                throw new EvaluationException(
+                    String.format("Impossible to write a tensor of type %s as binary content", type)
+                );
+        }
+    }
+
+    private static DataType fromCode(byte code) {
+        switch (code) {
+            case 0:
+                return DataType.STRING;
+            case 1:
+                return DataType.INTEGER;
+            case 2:
+                return DataType.LONG;
+            case 3:
+                return DataType.FLOAT;
+            case 4:
+                return DataType.DOUBLE;
+            case 5:
+                return DataType.BOOLEAN;
+            default:
+                throw new EvaluationException(String.format("Unknown datatype code %s in binary content", code));
+        }
+    }
+
+    private static ByteBuffer littleEndian(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reader of a binary content keeping track of the number of bytes that can still be read
+     */
+    private static class ContentReader {
+        private final InputStream inputStream;
+        private long remaining;
+
+        /**
+         * Little-endian chunk reused to decode the elements of arrays
+         */
+        private ByteBuffer chunk;
+
+        ContentReader(InputStream inputStream, long maxContentLength) {
+            this.inputStream = inputStream;
+            this.remaining = maxContentLength;
+        }
+
+        byte[] readBytes(long length) throws IOException {
+            if (length > Integer.MAX_VALUE) {
+                throw new EvaluationException("Binary content is too big");
+            }
+            consume(length);
+            // readNBytes grows its buffers as bytes arrive, so a length that is never sent is never fully allocated
+            byte[] bytes = inputStream.readNBytes((int) length);
+            if (bytes.length != length) {
+                throw new EvaluationException("Unexpected end of binary content");
+            }
+            return bytes;
+        }
+
+        /**
+         * Fill the given numeric or boolean array with its elements, decoded chunk by chunk
+         */
+        void readArray(Object array, DataType type, int size) throws IOException {
+            int elementSize = type == DataType.BOOLEAN ? 1 : elementSize(type);
+            consume((long) size * elementSize);
+            if (chunk == null) {
+                chunk = littleEndian(new byte[CHUNK_SIZE * Long.BYTES]);
+            }
+            for (int from = 0; from < size; from += CHUNK_SIZE) {
+                int count = Math.min(CHUNK_SIZE, size - from);
+                int length = count * elementSize;
+                if (inputStream.readNBytes(chunk.array(), 0, length) != length) {
+                    throw new EvaluationException("Unexpected end of binary content");
+                }
+                chunk.clear();
+                if (array instanceof int[]) {
+                    chunk.asIntBuffer().get((int[]) array, from, count);
+                } else if (array instanceof long[]) {
+                    chunk.asLongBuffer().get((long[]) array, from, count);
+                } else if (array instanceof float[]) {
+                    chunk.asFloatBuffer().get((float[]) array, from, count);
+                } else if (array instanceof double[]) {
+                    chunk.asDoubleBuffer().get((double[]) array, from, count);
+                } else {
+                    boolean[] booleans = (boolean[]) array;
+                    byte[] bytes = chunk.array();
+                    for (int i = 0; i < count; i++) {
+                        booleans[from + i] = bytes[i] != 0;
+                    }
+                }
+            }
+        }
+
+        private void consume(long length) {
+            if (length > remaining) {
+                throw new EvaluationException("Binary content is too big");
+            }
+            remaining -= length;
+        }
+
+        int readInt() throws IOException {
+            return littleEndian(readBytes(Integer.BYTES)).getInt();
+        }
+
+        String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            return new String(readBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void writeString(OutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer length = littleEndian(new byte[Integer.BYTES]);
+        length.putInt(value == null ? -1 : bytes.length);
+        outputStream.write(length.array());
+        outputStream.write(bytes);
+    }
+}
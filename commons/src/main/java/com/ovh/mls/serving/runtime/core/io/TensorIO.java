@@ -9,8 +9,8 @@ import com.ovh.mls.serving.runtime.utils.TableUtils;
 import tech.tablesaw.api.Table;
 import tech.tablesaw.columns.Column;
 
-import java.lang.reflect.Array;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -82,6 +82,28 @@ public class TensorIO {
         return new TensorIO(concat);
     }
 
+    /**
+     * Concatenate the underlying tensors of all the given collections along specified axis, each tensor being copied
+     * once
+     */
+    public static TensorIO concat(List<TensorIO> tensorIOs, int axis) {
+        TensorIO first = tensorIOs.get(0);
+        for (TensorIO tensorIO : tensorIOs) {
+            if (!tensorIO.tensorsNames().equals(first.tensorsNames())) {
+                throw new IllegalArgumentException("TensorIO should have the same underlying tensors");
+            }
+        }
+        Map<String, Tensor> concat = new HashMap<>();
+        for (String name : first.tensorsNames()) {
+            List<Tensor> tensors = new ArrayList<>(tensorIOs.size());
+            for (TensorIO tensorIO : tensorIOs) {
+                tensors.add(tensorIO.getTensor(name));
+            }
+            concat.put(name, Tensor.concat(tensors, axis));
+        }
+        return new TensorIO(concat);
+    }
+
     /**
      * Look at the first dimension size of each tensors in collection and return the maximum
      */
@@ -91,12 +113,11 @@ public class TensorIO {
             .tensors
             .values()
             .stream()
-            .map(Tensor::getData)
-            .map(x -> {
-                if (x.getClass().isArray() && !(x instanceof String) && !(x instanceof byte[])) {
-                    return Array.getLength(x);
-                } else {
+            .map(tensor -> {
+                if (tensor.isScalar()) {
                     return 1;
+                } else {
+                    return tensor.getShapeAsArray()[0];
                 }
             })
             .max(Integer::compare)
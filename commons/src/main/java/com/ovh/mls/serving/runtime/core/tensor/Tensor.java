@@ -34,6 +34,22 @@ public class Tensor {
      */
     private final boolean nullableValues;
 
+    /**
+     * Flat storage of the tensor (null if the tensor data is stored as a multi-dimensional java array)
+     * In flat mode, the multi-dimensional array is only built when accessed through getData
+     */
+    private TensorBuffer buffer;
+
+    /**
+     * Position of the first element of the tensor inside the flat storage
+     */
+    private int offset;
+
+    /**
+     * Number of elements to skip inside the flat storage to move by one along each dimension
+     */
+    private int[] strides;
+
     public Tensor(DataType type, int[] shape) {
         this(type, new TensorShape(shape), initialData(new TensorShape(shape), type));
     }
@@ -58,6 +74,16 @@ public class Tensor {
         checkNoUnknownDimension();
     }
 
+    private Tensor(DataType type, TensorShape shape, TensorBuffer buffer, int offset, int[] strides) {
+        this.type = type;
+        this.shape = shape;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.strides = strides;
+        this.nullableValues = buffer.isNullable();
+        checkNoUnknownDimension();
+    }
+
     /**
      * Accessor of the tensor datatype
      */
@@ -74,16 +100,143 @@ public class Tensor {
 
     /**
      * Accessor of data array
+     * For a tensor stored in flat mode, the multi-dimensional array is built as a copy of the flat storage, except
+     * for vectors covering their whole storage where the backing array itself is returned: modifying it then
+     * modifies the tensor and every view sharing that storage. Tensors not stored in flat mode return their data.
      */
     public Object getData() {
+        if (this.buffer != null) {
+            if (this.isVector() && this.offset == 0 && this.strides[0] == 1 && this.buffer.length() == shape.shape[0]) {
+                return this.buffer.getArray();
+            }
+            return this.buffer.unflatten(this.getShapeAsArray(), this.offset, this.strides);
+        }
         return data;
     }
 
     /**
      * Setter for data array
+     * The tensor is no longer stored in flat mode after that call
      */
     public void setData(Object data) {
         this.data = data;
+        this.buffer = null;
+        this.strides = null;
+        this.offset = 0;
+    }
+
+    /**
+     * Return true if the tensor is stored in flat mode (i.e. in a single contiguous java array)
+     */
+    public boolean isFlat() {
+        return this.buffer != null;
+    }
+
+    /**
+     * Access the elements of the tensor as a flat buffer in row-major order
+     * In flat mode, the underlying storage is returned if it exactly contains the tensor elements, otherwise a new
+     * buffer is created
+     */
+    public TensorBuffer getBuffer() {
+        if (this.buffer == null) {
+            return TensorBuffer.flatten(this.type, this.data, this.getShapeAsArray(), this.nullableValues);
+        }
+        if (this.offset == 0 && this.isContiguous() && this.buffer.length() == this.shape.shapeProduct()) {
+            return this.buffer;
+        }
+        TensorBuffer result = TensorBuffer.allocate(this.type, this.shape.shapeProduct(), this.buffer.isNullable());
+        this.copyInto(result);
+        return result;
+    }
+
+    /**
+     * Flat storage of the tensor as is, possibly shared with other views and holding more elements than the tensor
+     * Elements are located inside it with getOffset and getStrides (null if the tensor is not stored in flat mode)
+     */
+    public TensorBuffer getStorage() {
+        return this.buffer;
+    }
+
+    /**
+     * Position of the first element of the tensor inside its flat storage
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Number of elements to skip inside the flat storage to move by one along each dimension (null if the tensor is
+     * not stored in flat mode)
+     */
+    public int[] getStrides() {
+        return this.strides != null ? this.strides.clone() : null;
+    }
+
+    /**
+     * Return the same tensor stored in flat mode
+     */
+    public Tensor toFlat() {
+        if (this.buffer != null) {
+            return this;
+        }
+        return fromBuffer(this.type, this.shape, this.getBuffer());
+    }
+
+    /**
+     * Return true if the elements of the tensor are stored in row-major order inside the flat storage
+     */
+    private boolean isContiguous() {
+        int[] contiguousStrides = this.shape.getStrides();
+        for (int i = 0; i < contiguousStrides.length; i++) {
+            if (this.shape.shape[i] > 1 && this.strides[i] != contiguousStrides[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy the elements of this flat tensor in row-major order into the given buffer
+     * converting them into the type of the given buffer
+     */
+    private void copyInto(TensorBuffer destination) {
+        if (this.isScalar()) {
+            destination.setFrom(0, this.buffer, this.offset);
+        } else {
+            copyLayerInto(destination, 0, this.offset, 0);
+        }
+    }
+
+    private int copyLayerInto(TensorBuffer destination, int dimension, int position, int destinationPosition) {
+        int dimensionSize = this.shape.shape[dimension];
+        int stride = this.strides[dimension];
+        if (dimension == this.shape.shape.length - 1) {
+            if (stride == 1 && this.buffer.getArray().getClass() == destination.getArray().getClass()) {
+                this.buffer.copyTo(position, destination, destinationPosition, dimensionSize);
+            } else {
+                for (int i = 0; i < dimensionSize; i++) {
+                    destination.setFrom(destinationPosition + i, this.buffer, position + i * stride);
+                }
+            }
+            return destinationPosition + dimensionSize;
+        }
+        for (int i = 0; i < dimensionSize; i++) {
+            destinationPosition = copyLayerInto(destination, dimension + 1, position + i * stride, destinationPosition);
+        }
+        return destinationPosition;
+    }
+
+    /**
+     * Compute the position inside the flat storage of the given (defined) coordinates
+     */
+    private int flatPosition(int... coords) {
+        int position = this.offset;
+        for (int i = 0; i < coords.length; i++) {
+            if (coords[i] >= 0) {
+                position += coords[i] * this.strides[i];
+            }
+        }
+        return position;
     }
 
     /**
@@ -104,6 +257,11 @@ public class Tensor {
      * Setter of the shape
      */
     public void setShape(TensorShape shape) {
+        if (this.buffer != null) {
+            this.buffer = this.getBuffer();
+            this.offset = 0;
+            this.strides = shape.getStrides();
+        }
         this.shape = shape;
         checkNoUnknownDimension();
     }
@@ -117,6 +275,7 @@ public class Tensor {
 
     /**
      * Extract a new tensor of specified size from the original tensor
+     * The result is a view sharing the flat storage of the original tensor (no element is copied)
      */
     public Tensor slice(TensorShape begin, TensorShape size) {
         if (this.shape.getRank() != begin.getRank() || this.shape.getRank() != size.getRank()) {
@@ -142,34 +301,11 @@ public class Tensor {
             }
 
         }
-        Object result = getSlice(this.data, begin.shape, size.shape);
-        return Tensor.fromData(this.getType(), result);
-    }
-
-    private Object getSlice(Object data, int[] begin, int[] size) {
-        if (size.length == 1) {
-            Object result = Array.newInstance(this.getType().getJavaClass(), size);
-            for (int i = begin[0]; i < begin[0] + size[0]; i++) {
-                Array.set(result, i - begin[0], Array.get(data, i));
-            }
-            return result;
-        } else if (size.length > 1) {
-            Object result = Array.newInstance(this.getType().getJavaClass(), size);
-            for (int i = begin[0]; i < begin[0] + size[0]; i++) {
-                Array.set(
-                    result,
-                    i - begin[0],
-                    getSlice(
-                        Array.get(data, i),
-                        Arrays.copyOfRange(begin, 1, begin.length),
-                        Arrays.copyOfRange(size, 1, size.length)
-                    )
-                );
-            }
-            return result;
-        } else {
+        if (size.getRank() == 0) {
             throw new IllegalArgumentException("Cannot slice if size is empty");
         }
+        Tensor source = this.toFlat();
+        return new Tensor(source.type, size, source.buffer, source.flatPosition(begin.shape), source.strides);
     }
 
     /**
@@ -197,6 +333,8 @@ public class Tensor {
         Object concat;
         if (axis >= this.shape.getRank()) {
             throw new IllegalArgumentException("Axis out of bounds");
+        } else if (this.buffer != null) {
+            return concatFlat(List.of(this, value), axis);
         } else {
             concat = concat(
                 this.getData(),
@@ -209,6 +347,95 @@ public class Tensor {
         return fromData(this.getType(), concat);
     }
 
+    /**
+     * Concatenate the given tensors along an axis into a new Tensor, each of them being copied once
+     */
+    public static Tensor concat(List<Tensor> tensors, int axis) {
+        if (tensors.isEmpty()) {
+            throw new IllegalArgumentException("Cannot concatenate an empty list of tensors");
+        }
+        Tensor first = tensors.get(0);
+        if (first.buffer == null) {
+            // Nested storage is concatenated pairwise
+            Tensor result = first;
+            for (int i = 1; i < tensors.size(); i++) {
+                result = result.concat(tensors.get(i), axis);
+            }
+            return result;
+        }
+
+        // handle scalars
+        List<Tensor> values = new ArrayList<>(tensors.size());
+        for (Tensor tensor : tensors) {
+            values.add(tensor.isScalar() ? tensor.reshape(new int[] {1}) : tensor);
+        }
+        int[] baseShape = values.get(0).getShapeAsArray();
+        if (axis >= baseShape.length) {
+            throw new IllegalArgumentException("Axis out of bounds");
+        }
+        // all dimensions should be equal but on the axis
+        for (Tensor value : values) {
+            int[] valueShape = value.getShapeAsArray();
+            for (int i = 0; i < baseShape.length; i++) {
+                if (i != axis && baseShape[i] != valueShape[i]) {
+                    throw new IllegalArgumentException("Except for the axis dimension, all other should be equal");
+                }
+            }
+        }
+        return concatFlat(values, axis);
+    }
+
+    /**
+     * Concatenate tensors by copying blocks of their flat storages
+     */
+    private static Tensor concatFlat(List<Tensor> values, int axis) {
+        Tensor first = values.get(0);
+        int[] newShape = first.getShapeAsArray().clone();
+        newShape[axis] = 0;
+        for (Tensor value : values) {
+            newShape[axis] += value.getShapeAsArray()[axis];
+        }
+
+        int outerSize = 1;
+        for (int i = 0; i < axis; i++) {
+            outerSize *= newShape[i];
+        }
+        int innerSize = 1;
+        for (int i = axis + 1; i < newShape.length; i++) {
+            innerSize *= newShape[i];
+        }
+
+        TensorBuffer[] buffers = new TensorBuffer[values.size()];
+        int[] blocks = new int[values.size()];
+        boolean nullable = false;
+        for (int j = 0; j < values.size(); j++) {
+            Tensor value = values.get(j);
+            buffers[j] = value.getBuffer();
+            blocks[j] = value.getShapeAsArray()[axis] * innerSize;
+            nullable |= value.isNullable();
+        }
+        TensorBuffer result = TensorBuffer.allocate(first.type, outerSize * newShape[axis] * innerSize, nullable);
+        int position = 0;
+        for (int i = 0; i < outerSize; i++) {
+            for (int j = 0; j < buffers.length; j++) {
+                copyBlock(buffers[j], i * blocks[j], result, position, blocks[j]);
+                position += blocks[j];
+            }
+        }
+        return fromBuffer(first.type, new TensorShape(newShape), result);
+    }
+
+    private static void copyBlock(TensorBuffer source, int sourcePosition, TensorBuffer destination,
+                                  int destinationPosition, int length) {
+        if (source.getArray().getClass() == destination.getArray().getClass()) {
+            source.copyTo(sourcePosition, destination, destinationPosition, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                destination.setFrom(destinationPosition + i, source, sourcePosition + i);
+            }
+        }
+    }
+
     private Object concat(Object data, Object data1, int[] baseShape, int concatDim, int axis) {
         int[] newShape = baseShape.clone();
         newShape[axis] += concatDim;
@@ -240,8 +467,12 @@ public class Tensor {
      */
     public Object getCoord(int... coords) {
         int[] undefinedLength = checkNoMoreThanOneUndefinedCoords(coords);
+        if (this.buffer != null && coords.length == this.getRank()) {
+            return getFlatCoord(undefinedLength, coords);
+        }
+        Object data = this.getData();
         if (undefinedLength.length == 0) {
-            Object last = this.data;
+            Object last = data;
             for (int coord : coords) {
                 last = Array.get(last, coord);
             }
@@ -249,7 +480,7 @@ public class Tensor {
         } else {
             Object result = Array.newInstance(this.getType().getJavaClass(), undefinedLength[0]);
             for (int i = 0; i < undefinedLength[0]; i++) {
-                Object last = this.data;
+                Object last = data;
                 for (int coord : coords) {
                     if (coord < 0) {
                         coord = i;
@@ -263,6 +494,23 @@ public class Tensor {
         }
     }
 
+    /**
+     * Access data on this flat tensor from coordinates
+     */
+    private Object getFlatCoord(int[] undefinedLength, int... coords) {
+        int position = this.flatPosition(coords);
+        if (undefinedLength.length == 0) {
+            return this.buffer.get(position);
+        }
+        int undefinedStride = 0;
+        for (int i = 0; i < coords.length; i++) {
+            if (coords[i] < 0) {
+                undefinedStride = this.strides[i];
+            }
+        }
+        return this.buffer.unflatten(undefinedLength, position, new int[] {undefinedStride});
+    }
+
     /**
      * If this tensor is of type STRING, data can be stored as byte[], this method do the converstion if needed
      */
@@ -283,7 +531,9 @@ public class Tensor {
     public void setOnCoord(Object value, int... coords) {
         checkCoordsLength(coords);
         if (value != null) {
-            if (this.isScalar()) {
+            if (this.buffer != null) {
+                this.setFlatOnCoord(value, coords);
+            } else if (this.isScalar()) {
                 this.data = value;
             } else if (value.getClass().isArray()) {
                 this.setArrayOnCoord(value, coords);
@@ -293,6 +543,32 @@ public class Tensor {
         }
     }
 
+    /**
+     * Set the given value of the wanted coordinates of this flat tensor
+     */
+    private void setFlatOnCoord(Object value, int... coords) {
+        if (!this.isScalar() && value.getClass().isArray()) {
+            int arrayLength = checkUndefinedCoordsCompatible(value, coords);
+            int position = this.flatPosition(coords);
+            int undefinedStride = 0;
+            for (int i = 0; i < coords.length; i++) {
+                if (coords[i] < 0) {
+                    undefinedStride = this.strides[i];
+                }
+            }
+            if (undefinedStride == 1 && value.getClass() == this.buffer.getArray().getClass()) {
+                System.arraycopy(value, 0, this.buffer.getArray(), position, arrayLength);
+            } else {
+                for (int i = 0; i < arrayLength; i++) {
+                    this.buffer.set(position + i * undefinedStride, Array.get(value, i));
+                }
+            }
+        } else {
+            checkCoordsDefined(coords);
+            this.buffer.set(this.flatPosition(coords), value);
+        }
+    }
+
     /**
      * Reshape this tensor data into a simple vector
      */
@@ -318,6 +594,31 @@ public class Tensor {
         return new TensorIndexIterator(this.shape, indexRollingWindows, rollingWindowSize);
     }
 
+    /**
+     * Cursor over all the indexes of the current tensor
+     * The cursor position is the position of the current element inside the storage of the tensor (which is the
+     * row-major position when the tensor is not a view)
+     *
+     * @return the cursor
+     */
+    public TensorCursor cursor() {
+        return this.cursor(-1, 1);
+    }
+
+    /**
+     * Cursor over all the indexes of the current tensor with a rolling window
+     *
+     * @return the cursor
+     */
+    public TensorCursor cursor(int indexRollingWindows, int rollingWindowSize) {
+        if (this.buffer != null) {
+            return new TensorCursor(
+                this.shape.getArrayShape(), this.offset, this.strides, indexRollingWindows, rollingWindowSize
+            );
+        }
+        return new TensorCursor(this.shape, indexRollingWindows, rollingWindowSize);
+    }
+
     /**
      * Reshape the current tensor to the given new shape and current datatype
      *
@@ -354,6 +655,8 @@ public class Tensor {
 
     /**
      * Reshape the current tensor to the given new shape and given datatype
+     * If the datatype doesn't change and the elements are contiguous, the result is a view sharing the flat storage
+     * of the current tensor, otherwise elements are copied
      *
      * @param newShape The wanted new shape as int array
      * @param dataType The wanted datatype
@@ -369,20 +672,18 @@ public class Tensor {
             return this;
         }
 
-        Tensor output = new Tensor(dataType, resolvedNewShape);
+        Tensor source = this.toFlat();
+        TensorShape resolvedShape = new TensorShape(resolvedNewShape);
 
-        Iterator<int[]> thisIter = this.coordIterator();
-        Iterator<int[]> newIter = output.coordIterator();
-
-        while (thisIter.hasNext() && newIter.hasNext()) {
-            int[] thisCoord = thisIter.next();
-            int[] newCoord = newIter.next();
-
-            Object thisValue = getCoord(thisCoord);
-            Object convertedvalue = dataType.convert(thisValue);
-            output.setOnCoord(convertedvalue, newCoord);
+        // If only the shape changes, the result is a view over the same flat storage
+        if (dataType == source.type && !source.buffer.isNullable() && source.isContiguous()) {
+            return new Tensor(dataType, resolvedShape, source.buffer, source.offset, resolvedShape.getStrides());
         }
-        return output;
+
+        // Otherwise the elements are copied in row-major order into a new flat storage
+        TensorBuffer result = TensorBuffer.allocate(dataType, resolvedShape.shapeProduct());
+        source.copyInto(result);
+        return fromBuffer(dataType, resolvedShape, result);
     }
 
     /**
@@ -614,7 +915,19 @@ public class Tensor {
      */
     public Tensor simplifyShape() {
         TensorShape symplifiedShape = this.getShape().simplifyShape();
-        return this.reshape(symplifiedShape);
+        if (symplifiedShape.getRank() == this.getRank()) {
+            return this;
+        }
+        // Dropping dimensions of size 1 never needs a copy: keep the strides of the remaining dimensions
+        Tensor source = this.toFlat();
+        int[] simplifiedStrides = new int[symplifiedShape.getRank()];
+        int index = 0;
+        for (int i = 0; i < source.getRank(); i++) {
+            if (source.shape.shape[i] != 1) {
+                simplifiedStrides[index++] = source.strides[i];
+            }
+        }
+        return new Tensor(source.type, symplifiedShape, source.buffer, source.offset, simplifiedStrides);
     }
 
     /**
@@ -667,6 +980,7 @@ public class Tensor {
 
     /**
      * Apply a rolling windows on the wanted shape index
+     * The result is a view sharing the flat storage of the current tensor (no element is copied)
      */
     public Tensor roll(int shapeIndex, int windowsSize) {
         int[] currentShape = this.getShape().getArrayShape();
@@ -685,20 +999,52 @@ public class Tensor {
             }
         }
 
-        // Create the rolled tensor while iterating over window
-        Tensor output = new Tensor(this.type, resolvedNewShape);
+        // The rolled tensor is a view where the window dimension moves along the rolled dimension with the same
+        // stride: element [.., i, j, ..] of the view is element [.., i + j, ..] of the current tensor
+        Tensor source = this.toFlat();
+        int[] rolledStrides = new int[currentShapeLength + 1];
+        for (int i = 0; i < currentShapeLength; i++) {
+            if (i < shapeIndex) {
+                rolledStrides[i] = source.strides[i];
+            } else if (i > shapeIndex) {
+                rolledStrides[i + 1] = source.strides[i];
+            } else {
+                rolledStrides[i] = source.strides[i];
+                rolledStrides[i + 1] = source.strides[i];
+            }
+        }
+        return new Tensor(this.type, new TensorShape(resolvedNewShape), source.buffer, source.offset, rolledStrides);
+    }
 
-        Iterator<int[]> thisIter = this.coordIterator(shapeIndex, windowsSize);
-        Iterator<int[]> newIter = output.coordIterator();
+    /**
+     * Create a Tensor stored in flat mode from its flat buffer (in row-major order), shape and datatype
+     */
+    public static Tensor fromBuffer(DataType type, TensorShape shape, TensorBuffer buffer) {
+        if (buffer.length() != shape.shapeProduct()) {
+            throw new EvaluationException(
+                String.format(
+                    "A buffer of %s elements can't be used for a tensor of shape %s",
+                    buffer.length(),
+                    Arrays.toString(shape.getArrayShape())
+                )
+            );
+        }
+        return new Tensor(type, shape, buffer, 0, shape.getStrides());
+    }
 
-        while (thisIter.hasNext() && newIter.hasNext()) {
-            int[] thisCoord = thisIter.next();
-            int[] newCoord = newIter.next();
+    /**
+     * Create a Tensor stored in flat mode from its flat buffer (in row-major order), shape and datatype
+     */
+    public static Tensor fromBuffer(DataType type, int[] shape, TensorBuffer buffer) {
+        return fromBuffer(type, new TensorShape(shape), buffer);
+    }
 
-            Object thisValue = getCoord(thisCoord);
-            output.setOnCoord(thisValue, newCoord);
-        }
-        return output;
+    /**
+     * Create an empty Tensor stored in flat mode
+     */
+    public static Tensor flat(DataType type, int[] shape) {
+        TensorShape tensorShape = new TensorShape(shape);
+        return fromBuffer(type, tensorShape, TensorBuffer.allocate(type, tensorShape.shapeProduct()));
     }
 
     /**
@@ -752,12 +1098,18 @@ public class Tensor {
     }
 
     public <T> Tensor apply(Function<Object, T> func, DataType outputDataType) {
-        Tensor outputTensor = new Tensor(outputDataType, this.shape);
-        this.coordIterator().forEachRemaining(coords -> {
-            Object input = this.getCoord(coords);
-            T output = func.apply(input);
-            outputTensor.setOnCoord(output, coords);
-        });
-        return outputTensor;
+        Tensor source = this.toFlat();
+        TensorBuffer input = source.buffer;
+        TensorBuffer output = TensorBuffer.allocate(outputDataType, this.shape.shapeProduct());
+        TensorCursor cursor = source.cursor();
+        int position = 0;
+        while (cursor.next()) {
+            T value = func.apply(input.get(cursor.position()));
+            if (value != null) {
+                output.set(position, value);
+            }
+            position++;
+        }
+        return fromBuffer(outputDataType, this.shape, output);
     }
 }
@@ -0,0 +1,307 @@
+package com.ovh.mls.serving.runtime.core.tensor;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+
+import java.lang.reflect.Array;
+
+/**
+ * Contiguous storage for the elements of a tensor
+ * Underlying structure is a single java array (float[], double[], int[], long[], boolean[], String[]) or an array of
+ * the boxed java type when the tensor can contain null values
+ */
+public class TensorBuffer {
+
+    /**
+     * The datatype of the stored elements
+     */
+    private final DataType type;
+
+    /**
+     * The underlying one dimension java array
+     */
+    private final Object array;
+
+    /**
+     * Number of elements in the buffer
+     */
+    private final int length;
+
+    public TensorBuffer(DataType type, Object array) {
+        if (array == null || !array.getClass().isArray() || array.getClass().getComponentType().isArray()) {
+            throw new EvaluationException("A tensor buffer can only wrap a one dimension array");
+        }
+        Class<?> componentType = array.getClass().getComponentType();
+        if (componentType != type.getJavaClass() && componentType != type.getNullableJavaClass()) {
+            throw new EvaluationException(
+                String.format(
+                    "Impossible to wrap an array of %s into a tensor buffer of type %s",
+                    componentType,
+                    type
+                )
+            );
+        }
+        this.type = type;
+        this.array = array;
+        this.length = Array.getLength(array);
+    }
+
+    /**
+     * Allocate a new buffer of the given length for non nullable values
+     */
+    public static TensorBuffer allocate(DataType type, int length) {
+        return allocate(type, length, false);
+    }
+
+    /**
+     * Allocate a new buffer of the given length
+     */
+    public static TensorBuffer allocate(DataType type, int length, boolean nullable) {
+        Class<?> javaClass = nullable ? type.getNullableJavaClass() : type.getJavaClass();
+        return new TensorBuffer(type, Array.newInstance(javaClass, length));
+    }
+
+    /**
+     * Accessor of the datatype
+     */
+    public DataType getType() {
+        return type;
+    }
+
+    /**
+     * Accessor of the underlying java array
+     */
+    public Object getArray() {
+        return array;
+    }
+
+    /**
+     * Number of elements in the buffer
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Return true if the buffer is backed by an array of boxed values
+     */
+    public boolean isNullable() {
+        return !array.getClass().getComponentType().isPrimitive() && type != DataType.STRING;
+    }
+
+    /**
+     * Get the element at the given position
+     */
+    public Object get(int index) {
+        if (array instanceof float[]) {
+            return ((float[]) array)[index];
+        } else if (array instanceof double[]) {
+            return ((double[]) array)[index];
+        } else if (array instanceof int[]) {
+            return ((int[]) array)[index];
+        } else if (array instanceof long[]) {
+            return ((long[]) array)[index];
+        } else if (array instanceof boolean[]) {
+            return ((boolean[]) array)[index];
+        } else {
+            return ((Object[]) array)[index];
+        }
+    }
+
+    /**
+     * Set the element at the given position
+     * The value is supposed to be of the buffer datatype (numbers are narrowed or widened if needed)
+     */
+    public void set(int index, Object value) {
+        if (array instanceof float[]) {
+            ((float[]) array)[index] = ((Number) value).floatValue();
+        } else if (array instanceof double[]) {
+            ((double[]) array)[index] = ((Number) value).doubleValue();
+        } else if (array instanceof int[]) {
+            ((int[]) array)[index] = ((Number) value).intValue();
+        } else if (array instanceof long[]) {
+            ((long[]) array)[index] = ((Number) value).longValue();
+        } else if (array instanceof boolean[]) {
+            ((boolean[]) array)[index] = (Boolean) value;
+        } else {
+            ((Object[]) array)[index] = value;
+        }
+    }
+
+    /**
+     * Copy the element at the given position of another buffer into the given position of this buffer
+     * converting it into the datatype of this buffer
+     */
+    public void setFrom(int index, TensorBuffer source, int sourceIndex) {
+        if (source.array instanceof Object[] && ((Object[]) source.array)[sourceIndex] == null) {
+            // Null values are kept as is for nullable buffers and as default values otherwise
+            if (array instanceof Object[]) {
+                ((Object[]) array)[index] = null;
+            }
+            return;
+        }
+        if (array instanceof float[]) {
+            ((float[]) array)[index] = source.getFloat(sourceIndex);
+        } else if (array instanceof double[]) {
+            ((double[]) array)[index] = source.getDouble(sourceIndex);
+        } else if (array instanceof int[]) {
+            ((int[]) array)[index] = source.getInt(sourceIndex);
+        } else if (array instanceof long[]) {
+            ((long[]) array)[index] = source.getLong(sourceIndex);
+        } else {
+            set(index, type.convert(source.get(sourceIndex)));
+        }
+    }
+
+    public float getFloat(int index) {
+        if (array instanceof float[]) {
+            return ((float[]) array)[index];
+        }
+        return toNumber(index).floatValue();
+    }
+
+    public double getDouble(int index) {
+        if (array instanceof double[]) {
+            return ((double[]) array)[index];
+        } else if (array instanceof float[]) {
+            return ((float[]) array)[index];
+        }
+        return toNumber(index).doubleValue();
+    }
+
+    public int getInt(int index) {
+        if (array instanceof int[]) {
+            return ((int[]) array)[index];
+        }
+        return toNumber(index).intValue();
+    }
+
+    public long getLong(int index) {
+        if (array instanceof long[]) {
+            return ((long[]) array)[index];
+        } else if (array instanceof int[]) {
+            return ((int[]) array)[index];
+        }
+        return toNumber(index).longValue();
+    }
+
+    private Number toNumber(int index) {
+        Object value = get(index);
+        if (!(value instanceof Number)) {
+            throw new EvaluationException(
+                String.format("Impossible to read %s of type %s as a number", value, type)
+            );
+        }
+        return (Number) value;
+    }
+
+    /**
+     * Copy a range of this buffer into another buffer of the same java array type
+     */
+    public void copyTo(int srcPos, TensorBuffer dest, int destPos, int length) {
+        System.arraycopy(this.array, srcPos, dest.array, destPos, length);
+    }
+
+    /**
+     * Create a new buffer with the same content
+     */
+    public TensorBuffer copy() {
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return new TensorBuffer(type, copy);
+    }
+
+    /**
+     * Flatten tensor data (scalar or Array of [scalar or Array of [scalar or Array of etc...]]) in row-major order
+     *
+     * @param type The datatype of the tensor
+     * @param data The tensor data
+     * @param shape The shape of the tensor data
+     * @param nullable Should the buffer be able to contains null values
+     * @return The flat buffer
+     */
+    public static TensorBuffer flatten(DataType type, Object data, int[] shape, boolean nullable) {
+        int size = new TensorShape(shape).shapeProduct();
+        TensorBuffer buffer = allocate(type, size, nullable || hasBoxedLeaves(data, shape.length));
+        if (shape.length == 0) {
+            if (data != null) {
+                buffer.set(0, data);
+            }
+        } else if (size > 0) {
+            buffer.flattenLayer(data, shape, 0, 0);
+        }
+        return buffer;
+    }
+
+    private static boolean hasBoxedLeaves(Object data, int rank) {
+        if (rank == 0) {
+            return false;
+        }
+        Class<?> clazz = data.getClass();
+        for (int i = 0; i < rank; i++) {
+            clazz = clazz.getComponentType();
+        }
+        return clazz != null && !clazz.isPrimitive() && clazz != String.class && clazz != byte[].class;
+    }
+
+    private int flattenLayer(Object layer, int[] shape, int dimension, int position) {
+        int dimensionSize = shape[dimension];
+        if (dimension == shape.length - 1) {
+            if (layer.getClass().getComponentType() == array.getClass().getComponentType()) {
+                System.arraycopy(layer, 0, array, position, dimensionSize);
+            } else {
+                for (int i = 0; i < dimensionSize; i++) {
+                    set(position + i, convertLeaf(Array.get(layer, i)));
+                }
+            }
+            return position + dimensionSize;
+        }
+        for (int i = 0; i < dimensionSize; i++) {
+            position = flattenLayer(Array.get(layer, i), shape, dimension + 1, position);
+        }
+        return position;
+    }
+
+    private Object convertLeaf(Object value) {
+        if (value instanceof byte[]) {
+            return new String((byte[]) value);
+        }
+        return value;
+    }
+
+    /**
+     * Build tensor data (scalar or Array of [scalar or Array of [scalar or Array of etc...]]) from a view over
+     * this buffer
+     *
+     * @param shape The shape of the view
+     * @param offset Position in the buffer of the first element of the view
+     * @param strides Number of buffer elements to skip to move by one along each dimension
+     * @return The tensor data
+     */
+    public Object unflatten(int[] shape, int offset, int[] strides) {
+        if (shape.length == 0) {
+            return get(offset);
+        }
+        Object result = Array.newInstance(array.getClass().getComponentType(), shape);
+        unflattenLayer(result, shape, strides, 0, offset);
+        return result;
+    }
+
+    private void unflattenLayer(Object layer, int[] shape, int[] strides, int dimension, int position) {
+        int dimensionSize = shape[dimension];
+        int stride = strides[dimension];
+        if (dimension == shape.length - 1) {
+            if (stride == 1) {
+                System.arraycopy(array, position, layer, 0, dimensionSize);
+            } else {
+                for (int i = 0; i < dimensionSize; i++) {
+                    Array.set(layer, i, get(position + i * stride));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < dimensionSize; i++) {
+            unflattenLayer(Array.get(layer, i), shape, strides, dimension + 1, position + i * stride);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.ovh.mls.serving.runtime.core.tensor;
+
+/**
+ * Mutable cursor moving over each index inside a tensor of a given shape, in row-major order
+ * Contrary to TensorIndexIterator, the cursor doesn't allocate anything while moving: the coordinates array returned
+ * by coords() is reused and updated in place by each call to next()
+ * Can also manage a rolling window
+ *
+ * Usage :
+ * <pre>
+ *     TensorCursor cursor = tensor.cursor();
+ *     while (cursor.next()) {
+ *         int[] coords = cursor.coords();
+ *         int position = cursor.position();
+ *     }
+ * </pre>
+ */
+public class TensorCursor {
+
+    /**
+     * Shape over which the cursor moves
+     * With a rolling window, a dimension of the size of the window is inserted after the rolled dimension
+     */
+    private final int[] iteratedShape;
+
+    /**
+     * Strides of the iterated shape used to compute the flat position
+     */
+    private final int[] iteratedStrides;
+
+    /**
+     * Current index inside the iterated shape
+     */
+    private final int[] index;
+
+    /**
+     * Current coordinates inside the tensor
+     */
+    private final int[] coords;
+
+    /**
+     * Index of the rolled dimension (-1 if no rolling window)
+     */
+    private final int indexRollingWindows;
+
+    /**
+     * Number of indexes that remain to be visited
+     */
+    private long remaining;
+
+    /**
+     * Current position inside the flat storage
+     */
+    private int position;
+
+    /**
+     * Indicates if next() has not been called yet
+     */
+    private boolean beforeFirst;
+
+    /**
+     * Constructor of a simple cursor over indexes of a tensor shape
+     * @param shape Shape over which moving
+     */
+    public TensorCursor(TensorShape shape) {
+        this(shape.getArrayShape(), 0, shape.getStrides(), -1, 1);
+    }
+
+    /**
+     * Constructor of a cursor over indexes of a tensor shape with a rolling window
+     * @param shape Shape over which moving
+     * @param indexRollingWindows Index of the shape on with we want to roll
+     * @param rollingWindowSize Size of the rolling window
+     */
+    public TensorCursor(TensorShape shape, int indexRollingWindows, int rollingWindowSize) {
+        this(shape.getArrayShape(), 0, shape.getStrides(), indexRollingWindows, rollingWindowSize);
+    }
+
+    /**
+     * Constructor of a cursor over a strided view of a flat storage
+     * @param shape Shape over which moving
+     * @param offset Position of the first element inside the flat storage
+     * @param strides Strides of each dimension inside the flat storage
+     * @param indexRollingWindows Index of the shape on with we want to roll (-1 if no rolling window)
+     * @param rollingWindowSize Size of the rolling window
+     */
+    TensorCursor(int[] shape, int offset, int[] strides, int indexRollingWindows, int rollingWindowSize) {
+        int rank = shape.length;
+        this.coords = new int[rank];
+        this.position = offset;
+        this.beforeFirst = true;
+
+        if (indexRollingWindows >= 0 && indexRollingWindows < rank) {
+            this.indexRollingWindows = indexRollingWindows;
+            this.iteratedShape = new int[rank + 1];
+            this.iteratedStrides = new int[rank + 1];
+            for (int i = 0; i < rank; i++) {
+                if (i < indexRollingWindows) {
+                    this.iteratedShape[i] = shape[i];
+                    this.iteratedStrides[i] = strides[i];
+                } else if (i > indexRollingWindows) {
+                    this.iteratedShape[i + 1] = shape[i];
+                    this.iteratedStrides[i + 1] = strides[i];
+                } else {
+                    this.iteratedShape[i] = Math.max(shape[i] - rollingWindowSize + 1, 0);
+                    this.iteratedShape[i + 1] = rollingWindowSize;
+                    this.iteratedStrides[i] = strides[i];
+                    this.iteratedStrides[i + 1] = strides[i];
+                }
+            }
+        } else {
+            this.indexRollingWindows = -1;
+            this.iteratedShape = shape;
+            this.iteratedStrides = strides;
+        }
+        this.index = new int[this.iteratedShape.length];
+
+        long size = 1;
+        for (int dimensionSize : this.iteratedShape) {
+            size *= dimensionSize;
+        }
+        this.remaining = size;
+    }
+
+    /**
+     * Return true if there is still an index to visit
+     */
+    public boolean hasNext() {
+        return this.remaining > 0;
+    }
+
+    /**
+     * Move the cursor to the next index
+     * @return false if all indexes have already been visited
+     */
+    public boolean next() {
+        if (this.remaining <= 0) {
+            return false;
+        }
+        this.remaining--;
+        if (this.beforeFirst) {
+            this.beforeFirst = false;
+            return true;
+        }
+
+        // Increase the last dimension and propagate the carry to previous dimensions
+        int dimension = this.index.length - 1;
+        while (this.index[dimension] == this.iteratedShape[dimension] - 1) {
+            this.position -= this.index[dimension] * this.iteratedStrides[dimension];
+            this.index[dimension] = 0;
+            dimension--;
+        }
+        this.index[dimension]++;
+        this.position += this.iteratedStrides[dimension];
+        this.updateCoords(dimension);
+        return true;
+    }
+
+    /**
+     * Update tensor coordinates from the given dimension of the iterated shape
+     */
+    private void updateCoords(int fromDimension) {
+        if (this.indexRollingWindows < 0) {
+            System.arraycopy(this.index, fromDimension, this.coords, fromDimension, this.coords.length - fromDimension);
+            return;
+        }
+        for (int i = 0; i < this.coords.length; i++) {
+            if (i < this.indexRollingWindows) {
+                this.coords[i] = this.index[i];
+            } else if (i > this.indexRollingWindows) {
+                this.coords[i] = this.index[i + 1];
+            } else {
+                this.coords[i] = this.index[i] + this.index[i + 1];
+            }
+        }
+    }
+
+    /**
+     * Current coordinates inside the tensor
+     * The returned array is owned by the cursor and is updated by the next call to next()
+     */
+    public int[] coords() {
+        return this.coords;
+    }
+
+    /**
+     * Current position inside the flat storage of the tensor
+     */
+    public int position() {
+        return this.position;
+    }
+}
@@ -141,6 +141,20 @@ public class TensorShape {
             .reduce(1, (x, y) -> x * y);
     }
 
+    /**
+     * Return the row-major strides of the current shape
+     * i.e. the number of elements to skip in a flat buffer to move by one along each dimension
+     */
+    public int[] getStrides() {
+        int[] strides = new int[this.shape.length];
+        int stride = 1;
+        for (int i = this.shape.length - 1; i >= 0; i--) {
+            strides[i] = stride;
+            stride *= this.shape[i];
+        }
+        return strides;
+    }
+
     public int getRank() {
         return this.getArrayShape().length;
     }
@@ -4,6 +4,7 @@ import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.ConfigFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("ALL")
 public class FlowEvaluatorTest {
@@ -125,6 +129,29 @@ public class FlowEvaluatorTest {
 
         Assertions.assertEquals(2, output.getTensors().size());
         Assertions.assertEquals(Set.of("output_1_1", "output_2_1"), output.getTensors().keySet());
+        List<Evaluator<?>> evaluators = flowEvaluator.getEvaluators();
+        Assertions.assertEquals("0", ((TestEvaluator) evaluators.get(0)).evaluatorIndex);
+        Assertions.assertEquals("1", ((TestEvaluator) evaluators.get(1)).evaluatorIndex);
+    }
+
+    @Test
+    public void evaluateRequestedOutputs() throws EvaluationException {
+        TensorIO tensorIO = new TensorIO(Map.of(
+            "input_1_1",
+            Tensor.fromDoubleData(new double[] {3.14, 42.0, 0, 37})));
+        EvaluationContext context = new EvaluationContext();
+        context.setRequestedOutputs(List.of("output_2_1"));
+
+        flowEvaluator.evaluate(tensorIO, context);
+
+        List<Evaluator<?>> evaluators = flowEvaluator.getEvaluators();
+        // The first evaluator also has to produce what the second one reads
+        Assertions.assertEquals(
+            Set.of("output_2_1", "output_1_1", "input_1_1", "input_2_1"),
+            ((TestEvaluator) evaluators.get(0)).requestedOutputs
+        );
+        Assertions.assertEquals(Set.of("output_2_1"), ((TestEvaluator) evaluators.get(1)).requestedOutputs);
+        Assertions.assertEquals(Set.of("output_2_1"), context.getRequestedOutputs());
     }
 
     @Test
@@ -138,6 +165,109 @@ public class FlowEvaluatorTest {
             () -> flowEvaluator.evaluate(tensorIO, new EvaluationContext()));
     }
 
+    @Test
+    public void evaluateIndependentEvaluatorsConcurrently() throws EvaluationException, IOException {
+        CountDownLatch latch = new CountDownLatch(2);
+        LatchEvaluatorManifest manifest1 = new LatchEvaluatorManifest(latch);
+        manifest1.setInputs(List.of(new Field("input_1", DataType.INTEGER)));
+        manifest1.setOutputs(List.of(new Field("output_1", DataType.INTEGER)));
+        LatchEvaluatorManifest manifest2 = new LatchEvaluatorManifest(latch);
+        manifest2.setInputs(List.of(new Field("input_2", DataType.INTEGER)));
+        manifest2.setOutputs(List.of(new Field("output_2", DataType.INTEGER)));
+        TestEvaluatorManifest manifest3 = new TestEvaluatorManifest();
+        manifest3.setInputs(List.of(
+            new Field("output_1", DataType.INTEGER),
+            new Field("output_2", DataType.INTEGER)
+        ));
+        manifest3.setOutputs(List.of(new Field("output_3", DataType.INTEGER)));
+
+        FlowEvaluatorManifest manifest = new FlowEvaluatorManifest();
+        manifest.setEvaluatorManifests(Arrays.asList(manifest1, manifest2, manifest3));
+        FlowEvaluator evaluator = FlowEvaluator.create(
+            manifest,
+            "",
+            ConfigFactory.parseMap(Map.of("flow.parallelism", 2))
+        );
+
+        // Each of the first evaluators waits for the other one, which only succeeds if they run at the same time
+        TensorIO result = evaluator.evaluate(new TensorIO(Map.of(
+            "input_1", Tensor.fromIntData(new int[] {1, 2}),
+            "input_2", Tensor.fromIntData(new int[] {1, 2})
+        )), new EvaluationContext());
+        Assertions.assertEquals(Set.of("output_3"), result.tensorsNames());
+    }
+
+    @Test
+    public void evaluateSkipsUnneededEvaluatorsAndReleasesIntermediates() throws EvaluatorException, IOException {
+        FlowEvaluatorManifest manifest = new FlowEvaluatorManifest();
+        manifest.setEvaluatorManifests(Arrays.asList(
+            testManifest(List.of("input"), List.of("a")),
+            testManifest(List.of("input"), List.of("b")),
+            testManifest(List.of("a"), List.of("c")),
+            testManifest(List.of("c"), List.of("d"))
+        ));
+        manifest.setOutputs(Arrays.asList(
+            new Field("b", DataType.INTEGER),
+            new Field("d", DataType.INTEGER)
+        ));
+        FlowEvaluator evaluator = FlowEvaluator.create(
+            manifest,
+            "",
+            ConfigFactory.parseMap(Map.of("flow.parallelism", 1))
+        );
+        List<TestEvaluator> evaluators = (List) evaluator.getEvaluators();
+        EvaluationContext context = new EvaluationContext();
+        context.setRequestedOutputs(List.of("d"));
+
+        TensorIO result = evaluator.evaluate(
+            new TensorIO(Map.of("input", Tensor.fromIntData(new int[] {1, 2}))),
+            context
+        );
+
+        Assertions.assertEquals(Set.of("d"), result.tensorsNames());
+        // b is not requested
+        Assertions.assertNull(evaluators.get(1).inputNames);
+        // a is released once c is computed, as well as the input once read by the first evaluator
+        Assertions.assertEquals(Set.of("a"), evaluators.get(2).inputNames);
+        Assertions.assertEquals(Set.of("c"), evaluators.get(3).inputNames);
+    }
+
+    private static TestEvaluatorManifest testManifest(List<String> inputs, List<String> outputs) {
+        TestEvaluatorManifest manifest = new TestEvaluatorManifest();
+        manifest.setInputs(inputs.stream().map(name -> new Field(name, DataType.INTEGER)).collect(Collectors.toList()));
+        manifest.setOutputs(
+            outputs.stream().map(name -> new Field(name, DataType.INTEGER)).collect(Collectors.toList())
+        );
+        return manifest;
+    }
+
+    public static class LatchEvaluatorManifest extends TestEvaluatorManifest {
+
+        private final CountDownLatch latch;
+
+        public LatchEvaluatorManifest(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public Evaluator create(String path) {
+            return new TestEvaluator(getInputs(), getOutputs(), getBatchSize()) {
+                @Override
+                public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+                    latch.countDown();
+                    try {
+                        if (!latch.await(10, TimeUnit.SECONDS)) {
+                            throw new EvaluationException("Evaluators did not run concurrently");
+                        }
+                    } catch (InterruptedException e) {
+                        throw new EvaluationException(e);
+                    }
+                    return super.evaluate(io, evaluationContext);
+                }
+            };
+        }
+    }
+
     public static class TestEvaluatorManifest extends AbstractEvaluatorManifest {
 
         private int batchSize;
@@ -167,6 +297,9 @@ public class FlowEvaluatorTest {
         private final List<Field> inputs;
         private final List<Field> outputs;
         private final int batchSize;
+        private Set<String> requestedOutputs;
+        private Set<String> inputNames;
+        private String evaluatorIndex;
 
         public TestEvaluator(List<Field> inputs, List<Field> outputs, int batchSize) {
             this.inputs = inputs;
@@ -176,6 +309,9 @@ public class FlowEvaluatorTest {
 
         @Override
         public TensorIO evaluate(TensorIO io, EvaluationContext evaluationContext) {
+            requestedOutputs = evaluationContext.getRequestedOutputs();
+            inputNames = new HashSet<>(io.tensorsNames());
+            evaluatorIndex = evaluationContext.getEvaluatorIndex();
             Map<String, Tensor> tensors = new HashMap<>();
             for (Field output : getOutputs()) {
                 tensors.put(output.getName(), Tensor.fromIntData(new int[]{1, 2}));
@@ -0,0 +1,89 @@
+package com.ovh.mls.serving.runtime.core;
+
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaPoolTest {
+
+    @Test
+    public void createReplicas() {
+        ReplicaPool<String> pool = ReplicaPool.create(3, index -> "replica-" + index);
+        Assertions.assertEquals(List.of("replica-0", "replica-1", "replica-2"), pool.getReplicas());
+        Assertions.assertThrows(EvaluatorException.class, () -> ReplicaPool.create(0, index -> "replica"));
+    }
+
+    @Test
+    public void idleReplicasAreUsedInTurn() {
+        ReplicaPool<String> pool = ReplicaPool.create(3, index -> "replica-" + index);
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            used.add(pool.apply(replica -> replica));
+        }
+        Assertions.assertEquals(List.of("replica-0", "replica-1", "replica-2", "replica-0"), used);
+        Assertions.assertArrayEquals(new int[] {0, 0, 0}, pool.getInFlight());
+    }
+
+    @Test
+    public void closeReplicas() {
+        List<Integer> closed = new ArrayList<>();
+        ReplicaPool<AutoCloseable> pool = ReplicaPool.create(2, index -> () -> closed.add(index));
+        pool.close();
+        pool.close();
+        Assertions.assertEquals(List.of(0, 1), closed);
+    }
+
+    @Test
+    public void closeCreatedReplicasWhenCreationFails() {
+        List<Integer> closed = new ArrayList<>();
+        Assertions.assertThrows(EvaluatorException.class, () -> ReplicaPool.<AutoCloseable>create(3, index -> {
+            if (index == 2) {
+                throw new EvaluatorException("Cannot load replica");
+            }
+            return () -> closed.add(index);
+        }));
+        Assertions.assertEquals(List.of(0, 1), closed);
+    }
+
+    @Test
+    public void concurrentCallsGoToLeastLoadedReplica() throws Exception {
+        ReplicaPool<Integer> pool = ReplicaPool.create(2, index -> index);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> pool.apply(replica -> {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return replica;
+                })));
+            }
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            int[] inFlight = pool.getInFlight();
+            Assertions.assertEquals(3, inFlight[0] + inFlight[1]);
+            Assertions.assertTrue(inFlight[0] >= 1 && inFlight[1] >= 1);
+
+            release.countDown();
+            for (Future<Integer> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+            Assertions.assertArrayEquals(new int[] {0, 0}, pool.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
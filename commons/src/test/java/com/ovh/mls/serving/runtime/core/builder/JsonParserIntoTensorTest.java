@@ -0,0 +1,131 @@
+package com.ovh.mls.serving.runtime.core.builder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorField;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonParserIntoTensorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void testBuildTensorInteger() throws IOException {
+        Tensor tensor = build("[[[1, 2], [3, 4]], [[1, 2], [3, 4]]]", new JsonParserIntoTensor());
+        assertEquals(DataType.INTEGER, tensor.getType());
+        assertArrayEquals(new int[]{2, 2, 2}, tensor.getShapeAsArray());
+        assertFalse(tensor.isNullable());
+        assertArrayEquals(new int[][][]{
+            new int[][]{new int[]{1, 2}, new int[]{3, 4}},
+            new int[][]{new int[]{1, 2}, new int[]{3, 4}}
+        }, (int[][][]) tensor.getData());
+    }
+
+    @Test
+    void testBuildTensorWithDifferentNumbers() throws IOException {
+        Tensor tensor = build("[[null, 1], [2.5, null], [3, 5000000000]]", new JsonParserIntoTensor());
+        assertEquals(DataType.DOUBLE, tensor.getType());
+        assertArrayEquals(new int[]{3, 2}, tensor.getShapeAsArray());
+        assertTrue(tensor.isNullable());
+        assertArrayEquals(new Double[][]{
+            new Double[]{null, 1.0},
+            new Double[]{2.5, null},
+            new Double[]{3.0, 5000000000.0}
+        }, (Double[][]) tensor.getData());
+    }
+
+    @Test
+    void testBuildWrongTensorInteger() {
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> build("[[[1, 2], [3]], [[1, 2]]]", new JsonParserIntoTensor())
+        );
+        assertEquals(
+            "Dimension number 2 is expected to be of size 2 but found 1 instead",
+            exception.getMessage()
+        );
+    }
+
+    @Test
+    void testBuildWTFTensor() {
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> build("[[null, 1], [true, \"toto\"]]", new JsonParserIntoTensor())
+        );
+        assertEquals(
+            "Impossible to find type of tensor : several where found [boolean, integer]",
+            exception.getMessage()
+        );
+    }
+
+    @Test
+    void testBuildEmptyTensor() {
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> build("[[], []]", new JsonParserIntoTensor())
+        );
+        assertEquals("Impossible to find type of tensor : no one where found", exception.getMessage());
+    }
+
+    @Test
+    void testBuildScalar() throws IOException {
+        Tensor tensor = build("1.5", new JsonParserIntoTensor());
+        assertEquals(DataType.DOUBLE, tensor.getType());
+        assertArrayEquals(new int[]{}, tensor.getShapeAsArray());
+        assertEquals(1.5, tensor.getData());
+
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> build("null", new JsonParserIntoTensor())
+        );
+        assertEquals("Impossible to find type of tensor : no one where found", exception.getMessage());
+
+        TensorField field = new TensorField("input", DataType.INTEGER, new int[]{}, List.of());
+        Tensor nullTensor = build("null", new JsonParserIntoTensor(field));
+        assertEquals(DataType.INTEGER, nullTensor.getType());
+        assertTrue(nullTensor.isNullable());
+        assertNull(nullTensor.getData());
+    }
+
+    @Test
+    void testBuildWithExpectedField() throws IOException {
+        TensorField field = new TensorField("input", DataType.FLOAT, new int[]{-1, 3}, List.of());
+        Tensor tensor = build("[[1, 2, 3.5], [4, 5, 6]]", new JsonParserIntoTensor(field));
+        assertEquals(DataType.FLOAT, tensor.getType());
+        assertArrayEquals(new int[]{2, 3}, tensor.getShapeAsArray());
+        assertArrayEquals(new float[][]{
+            new float[]{1f, 2f, 3.5f},
+            new float[]{4f, 5f, 6f}
+        }, (float[][]) tensor.getData());
+    }
+
+    @Test
+    void testBuildWithExpectedFieldWrongType() {
+        TensorField field = new TensorField("input", DataType.DOUBLE, new int[]{-1}, List.of());
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> build("[1, \"toto\"]", new JsonParserIntoTensor(field))
+        );
+        assertEquals("Impossible to convert toto into double", exception.getMessage());
+    }
+
+    private Tensor build(String json, JsonParserIntoTensor builder) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            parser.nextToken();
+            return builder.build(parser);
+        }
+    }
+}
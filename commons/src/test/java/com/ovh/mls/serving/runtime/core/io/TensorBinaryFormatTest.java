@@ -0,0 +1,113 @@
+package com.ovh.mls.serving.runtime.core.io;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TensorBinaryFormatTest {
+
+    @Test
+    void testRoundTrip() throws IOException {
+        float[] floats = new float[20000];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i * 0.5f;
+        }
+        TensorIO tensorIO = new TensorIO(Map.of(
+            "floats", Tensor.fromBuffer(DataType.FLOAT, new int[]{100, 200}, new TensorBuffer(DataType.FLOAT, floats)),
+            "longs", Tensor.fromData(DataType.LONG, new long[][]{{1L, -2L}, {Long.MAX_VALUE, 4L}}),
+            "nullable", Tensor.fromBuffer(
+                DataType.DOUBLE, new int[]{3}, new TensorBuffer(DataType.DOUBLE, new Double[]{1.5, null, 3.0})
+            ),
+            "booleans", Tensor.fromData(DataType.BOOLEAN, new boolean[]{true, false}),
+            "strings", Tensor.fromData(DataType.STRING, new String[]{"été", null}),
+            "scalar", Tensor.fromData(DataType.INTEGER, 42)
+        ));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TensorBinaryFormat.write(tensorIO, outputStream);
+        TensorIO result = TensorBinaryFormat.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertEquals(tensorIO.getTensors().keySet(), result.getTensors().keySet());
+        Tensor floatTensor = result.getTensor("floats");
+        assertEquals(DataType.FLOAT, floatTensor.getType());
+        assertArrayEquals(new int[]{100, 200}, floatTensor.getShapeAsArray());
+        assertArrayEquals(floats, (float[]) floatTensor.getBuffer().getArray());
+        assertArrayEquals(
+            new long[][]{{1L, -2L}, {Long.MAX_VALUE, 4L}},
+            (long[][]) result.getTensor("longs").getData()
+        );
+        assertArrayEquals(new double[]{1.5, 0.0, 3.0}, (double[]) result.getTensor("nullable").getData());
+        assertArrayEquals(new boolean[]{true, false}, (boolean[]) result.getTensor("booleans").getData());
+        assertArrayEquals(new String[]{"été", null}, (String[]) result.getTensor("strings").getData());
+        assertEquals(42, result.getTensor("scalar").getData());
+    }
+
+    @Test
+    void testTruncatedContent() throws IOException {
+        TensorIO tensorIO = new TensorIO(Map.of("ints", Tensor.fromData(DataType.INTEGER, new int[]{1, 2, 3})));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TensorBinaryFormat.write(tensorIO, outputStream);
+        byte[] bytes = outputStream.toByteArray();
+
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> TensorBinaryFormat.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)))
+        );
+        assertEquals("Unexpected end of binary content", exception.getMessage());
+    }
+
+    @Test
+    void testInvalidHeadersAreRejected() {
+        // Negative rank
+        assertRejected(header(DataType.FLOAT, -1), "Invalid rank -1 of tensor t");
+        // Negative dimension
+        assertRejected(header(DataType.FLOAT, 1, -3), "Invalid size -3 for dimension 0 of tensor t");
+        // Element count overflowing a long
+        assertRejected(
+            header(DataType.FLOAT, 4, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE),
+            "Tensor t is too big"
+        );
+        // Tensor declaring more elements than the content can hold
+        assertThrows(
+            EvaluationException.class,
+            () -> TensorBinaryFormat.read(new ByteArrayInputStream(header(DataType.DOUBLE, 1, 1000)), 64)
+        );
+    }
+
+    private static void assertRejected(byte[] bytes, String message) {
+        EvaluationException exception = assertThrows(
+            EvaluationException.class,
+            () -> TensorBinaryFormat.read(new ByteArrayInputStream(bytes))
+        );
+        assertEquals(message, exception.getMessage());
+    }
+
+    /**
+     * Binary content of a single tensor named 't' with the given rank and dimensions, but without data
+     */
+    private static byte[] header(DataType type, int rank, int... shape) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 1 + 1 + 4 + 4 * shape.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(1);
+        buffer.putInt(1).put((byte) 't');
+        buffer.put((byte) (type == DataType.FLOAT ? 3 : 4));
+        buffer.putInt(rank);
+        for (int dimension : shape) {
+            buffer.putInt(dimension);
+        }
+        return buffer.array();
+    }
+}
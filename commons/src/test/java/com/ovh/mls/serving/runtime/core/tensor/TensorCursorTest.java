@@ -0,0 +1,77 @@
+package com.ovh.mls.serving.runtime.core.tensor;
+
+import com.ovh.mls.serving.runtime.core.DataType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TensorCursorTest {
+
+    @Test
+    public void testCursor() {
+        TensorCursor cursor = new TensorCursor(new TensorShape(new int[]{2, 3}));
+        int[] coords = cursor.coords();
+        int[][] expected = {{0, 0}, {0, 1}, {0, 2}, {1, 0}, {1, 1}, {1, 2}};
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(cursor.hasNext());
+            assertTrue(cursor.next());
+            assertSame(coords, cursor.coords());
+            assertArrayEquals(expected[i], cursor.coords());
+            assertEquals(i, cursor.position());
+        }
+        assertFalse(cursor.hasNext());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testCursorScalar() {
+        TensorCursor cursor = new TensorCursor(new TensorShape(new int[]{}));
+        assertTrue(cursor.next());
+        assertArrayEquals(new int[]{}, cursor.coords());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testCursorRollingWindow() {
+        TensorCursor cursor = new TensorCursor(new TensorShape(new int[]{4, 2}), 0, 3);
+        int[][] expected = {
+            {0, 0}, {0, 1}, {1, 0}, {1, 1}, {2, 0}, {2, 1},
+            {1, 0}, {1, 1}, {2, 0}, {2, 1}, {3, 0}, {3, 1}
+        };
+        for (int[] coords : expected) {
+            assertTrue(cursor.next());
+            assertArrayEquals(coords, cursor.coords());
+            assertEquals(coords[0] * 2 + coords[1], cursor.position());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testCursorOverView() {
+        Tensor tensor = Tensor.fromIntData(new int[][]{{1, 2, 3}, {4, 5, 6}}).toFlat();
+        Tensor slice = tensor.slice(new TensorShape(new int[]{0, 1}), new TensorShape(new int[]{2, 2}));
+        int[] storage = (int[]) tensor.getBuffer().getArray();
+        TensorCursor cursor = slice.cursor();
+        int[] expected = {2, 3, 5, 6};
+        for (int value : expected) {
+            assertTrue(cursor.next());
+            assertEquals(value, storage[cursor.position()]);
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testApply() {
+        Tensor tensor = Tensor.fromIntData(new int[][]{{1, 2, 3}, {4, 5, 6}});
+        Tensor result = tensor.roll(1, 2).apply(x -> ((Integer) x) * 2.0, DataType.DOUBLE);
+        assertArrayEquals(new int[]{2, 2, 2}, result.getShapeAsArray());
+        assertArrayEquals(
+            new double[][][]{{{2.0, 4.0}, {4.0, 6.0}}, {{8.0, 10.0}, {10.0, 12.0}}},
+            (double[][][]) result.getData()
+        );
+    }
+}
@@ -4,6 +4,8 @@ import com.ovh.mls.serving.runtime.core.DataType;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -392,4 +394,174 @@ public class TensorTest {
         assertArrayEquals((int[]) expected.getData(), (int[]) result.getData());
     }
 
+    @Test
+    public void concatSeveralFlatTensors() {
+        Tensor tensor1 = Tensor.fromIntData(new int[][] {{1, 2}, {3, 4}}).toFlat();
+        Tensor tensor2 = Tensor.fromIntData(new int[][] {{5, 6}}).toFlat();
+        // A view of a single row
+        Tensor tensor3 = Tensor.fromIntData(new int[][] {{0, 0}, {7, 8}}).toFlat()
+            .slice(new TensorShape(new int[] {1, 0}), new TensorShape(new int[] {1, 2}));
+
+        Tensor result = Tensor.concat(List.of(tensor1, tensor2, tensor3), 0);
+        assertArrayEquals(new int[] {4, 2}, result.getShapeAsArray());
+        assertArrayEquals(new int[][] {{1, 2}, {3, 4}, {5, 6}, {7, 8}}, (int[][]) result.getData());
+
+        result = Tensor.concat(List.of(tensor1, tensor1.slice(
+            new TensorShape(new int[] {0, 1}), new TensorShape(new int[] {2, 1})
+        )), 1);
+        assertArrayEquals(new int[][] {{1, 2, 2}, {3, 4, 4}}, (int[][]) result.getData());
+
+        assertThrows(IllegalArgumentException.class, () -> Tensor.concat(List.of(tensor1, tensor2), 1));
+    }
+
+    @Test
+    public void flatFromData() {
+        Tensor tensor = Tensor.fromIntData(new int[][] {
+            new int[] {1, 2, 3},
+            new int[] {4, 5, 6}
+        }).toFlat();
+
+        assertTrue(tensor.isFlat());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, (int[]) tensor.getBuffer().getArray());
+        assertArrayEquals(new int[] {2, 3}, tensor.getShapeAsArray());
+        assertEquals(5, tensor.getCoord(1, 1));
+        assertArrayEquals(new int[] {3, 6}, (int[]) tensor.getCoord(-1, 2));
+        assertArrayEquals(new int[] {4, 5, 6}, (int[]) tensor.getCoord(1, -1));
+        assertArrayEquals(
+            new int[][] {
+                new int[] {1, 2, 3},
+                new int[] {4, 5, 6}
+            },
+            (int[][]) tensor.getData()
+        );
+    }
+
+    @Test
+    public void flatSetOnCoord() {
+        Tensor tensor = Tensor.flat(DataType.FLOAT, new int[] {3, 2});
+        tensor.setOnCoord(1f, 2, 0);
+        tensor.setOnCoord(new float[] {4f, 5f, 6f}, -1, 1);
+
+        assertArrayEquals(new float[] {0f, 4f, 0f, 5f, 1f, 6f}, (float[]) tensor.getBuffer().getArray());
+        assertArrayEquals(
+            new float[][] {
+                new float[] {0f, 4f},
+                new float[] {0f, 5f},
+                new float[] {1f, 6f}
+            },
+            (float[][]) tensor.getData()
+        );
+    }
+
+    @Test
+    public void flatReshapeWithType() {
+        Tensor tensor = Tensor.fromBuffer(
+            DataType.INTEGER,
+            new int[] {3, 2},
+            new TensorBuffer(DataType.INTEGER, new int[] {1, 2, 3, 4, 5, 6})
+        );
+
+        Tensor reshaped = tensor.reshapeWithType(new int[] {2, -1}, DataType.DOUBLE);
+
+        assertTrue(reshaped.isFlat());
+        assertEquals(DataType.DOUBLE, reshaped.getType());
+        assertArrayEquals(
+            new double[][] {
+                new double[] {1, 2, 3},
+                new double[] {4, 5, 6}
+            },
+            (double[][]) reshaped.getData()
+        );
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, (int[]) tensor.toVector().getData());
+    }
+
+    @Test
+    public void flatSliceAndConcat() {
+        Tensor tensor = Tensor.fromIntData(new int[][][] {
+            new int[][] {new int[] {1, 1, 1}, new int[] {2, 2, 2}},
+            new int[][] {new int[] {3, 3, 3}, new int[] {4, 4, 4}},
+            new int[][] {new int[] {5, 5, 5}, new int[] {6, 6, 6}}
+        }).toFlat();
+
+        Tensor slice = tensor.slice(new TensorShape(new int[] {1, 1, 0}), new TensorShape(new int[] {2, 1, 2}));
+        assertArrayEquals(
+            new int[][][] {
+                new int[][] {new int[] {4, 4}},
+                new int[][] {new int[] {6, 6}}
+            },
+            (int[][][]) slice.getData()
+        );
+
+        Tensor tensor1 = Tensor.fromIntData(new int[][] {new int[] {1, 2}, new int[] {3, 4}}).toFlat();
+        Tensor tensor2 = Tensor.fromIntData(new int[][] {new int[] {5}, new int[] {6}});
+        assertArrayEquals(
+            new int[][] {new int[] {1, 2, 5}, new int[] {3, 4, 6}},
+            (int[][]) tensor1.concat(tensor2, 1).getData()
+        );
+        assertArrayEquals(
+            new int[][] {new int[] {1, 2}, new int[] {3, 4}, new int[] {1, 2}, new int[] {3, 4}},
+            (int[][]) tensor1.concat(tensor1, 0).getData()
+        );
+    }
+
+    @Test
+    public void flatRoll() {
+        Tensor input = Tensor.fromIntData(new int[][] {
+            new int[] {1, 2, 3, 4},
+            new int[] {5, 6, 7, 8},
+        }).toFlat();
+
+        Tensor output = input.roll(1, 2);
+        assertTrue(output.isFlat());
+        assertArrayEquals(new int[][][] {
+            new int[][] {
+                new int[] {1, 2},
+                new int[] {2, 3},
+                new int[] {3, 4},
+            },
+            new int[][] {
+                new int[] {5, 6},
+                new int[] {6, 7},
+                new int[] {7, 8},
+            },
+        }, (int[][][]) output.getData());
+    }
+
+    @Test
+    public void viewsShareStorage() {
+        Tensor tensor = Tensor.fromBuffer(
+            DataType.FLOAT,
+            new int[] {2, 1, 3},
+            new TensorBuffer(DataType.FLOAT, new float[] {1f, 2f, 3f, 4f, 5f, 6f})
+        );
+
+        Tensor reshaped = tensor.reshape(new int[] {3, 2});
+        Tensor simplified = tensor.simplifyShape();
+        Tensor slice = tensor.slice(new TensorShape(new int[] {1, 0, 1}), new TensorShape(new int[] {1, 1, 2}));
+        assertArrayEquals(new int[] {2, 3}, simplified.getShapeAsArray());
+
+        tensor.setOnCoord(10f, 1, 0, 2);
+        assertEquals(10f, reshaped.getCoord(2, 1));
+        assertEquals(10f, simplified.getCoord(1, 2));
+        assertArrayEquals(new float[][][] {new float[][] {new float[] {5f, 10f}}}, (float[][][]) slice.getData());
+    }
+
+    @Test
+    public void rollView() {
+        Tensor input = Tensor.fromIntData(new int[][] {
+            new int[] {1, 2},
+            new int[] {3, 4},
+            new int[] {5, 6},
+        }).toFlat();
+
+        Tensor rolled = input.roll(0, 2);
+        assertArrayEquals(new int[] {2, 2, 2}, rolled.getShapeAsArray());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 3, 4, 5, 6}, (int[]) rolled.toVector().getData());
+
+        // Reshaping a rolled tensor needs a copy, which must not alter the rolled view
+        Tensor reshaped = rolled.reshape(new int[] {4, 2});
+        reshaped.setOnCoord(0, 0, 0);
+        assertEquals(1, rolled.getCoord(0, 0, 0));
+    }
+
 }
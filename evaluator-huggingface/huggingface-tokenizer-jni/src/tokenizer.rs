@@ -1,8 +1,10 @@
 use std::sync::MutexGuard;
 
 use jni::objects::{JClass, JObject, JString};
-use jni::sys::{jobject, jobjectArray};
+use jni::sys::{jint, jlong, jobject, jobjectArray, jsize};
 use jni::JNIEnv;
+use tokenizers::utils::padding::{PaddingParams, PaddingStrategy};
+use tokenizers::utils::truncation::TruncationParams;
 use tokenizers::{EncodeInput, Tokenizer};
 
 use crate::{jstring_array_to_vec, unwrap_or_throw, Error};
@@ -142,6 +144,124 @@ pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_To
     unwrap_or_throw(&env, result, JObject::null().into_inner())
 }
 
+/// Native method Tokenizer::encodeBatch(String[])
+#[no_mangle]
+pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_Tokenizer_encodeBatch___3Ljava_lang_String_2(
+    env: JNIEnv,
+    tokenizer: JObject,
+    inputs: jobjectArray,
+) -> jobjectArray {
+    let result = || -> Result<jobjectArray, Error> {
+        // Encode inputs
+        let inputs: Vec<EncodeInput> = jstring_array_to_vec(&env, inputs)?
+            .into_iter()
+            .map(|input| EncodeInput::Single(input.into()))
+            .collect();
+        encode_batch(&env, tokenizer, inputs)
+    }();
+
+    unwrap_or_throw(&env, result, JObject::null().into_inner())
+}
+
+/// Native method Tokenizer::encodeBatch(String[], String[])
+#[no_mangle]
+pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_Tokenizer_encodeBatch___3Ljava_lang_String_2_3Ljava_lang_String_2(
+    env: JNIEnv,
+    tokenizer: JObject,
+    inputs1: jobjectArray,
+    inputs2: jobjectArray,
+) -> jobjectArray {
+    let result = || -> Result<jobjectArray, Error> {
+        // Encode pairs of inputs
+        let inputs: Vec<EncodeInput> = jstring_array_to_vec(&env, inputs1)?
+            .into_iter()
+            .zip(jstring_array_to_vec(&env, inputs2)?.into_iter())
+            .map(|(input1, input2)| EncodeInput::Dual(input1.into(), input2.into()))
+            .collect();
+        encode_batch(&env, tokenizer, inputs)
+    }();
+
+    unwrap_or_throw(&env, result, JObject::null().into_inner())
+}
+
+/// Encode the given inputs in parallel and wrap the encodings in a Java array
+fn encode_batch(
+    env: &JNIEnv,
+    tokenizer: JObject,
+    inputs: Vec<EncodeInput>,
+) -> Result<jobjectArray, Error> {
+    let encodings = {
+        let tokenizer: MutexGuard<Tokenizer> = env.get_rust_field(tokenizer, "handle")?;
+        tokenizer.encode_batch(inputs, false)?
+    };
+
+    // Wrap encodings in Java objects
+    let encoding_class =
+        env.find_class("com/ovh/mls/serving/runtime/huggingface/tokenizer/Encoding")?;
+    let encodings_array =
+        env.new_object_array(encodings.len() as jsize, encoding_class, JObject::null())?;
+    for (index, encoding) in encodings.into_iter().enumerate() {
+        let encoding_object = env.alloc_object(encoding_class)?;
+        env.set_rust_field(encoding_object, "handle", encoding)?;
+        env.set_object_array_element(encodings_array, index as jsize, encoding_object)?;
+        env.delete_local_ref(encoding_object)?;
+    }
+
+    Ok(encodings_array)
+}
+
+/// Native method Tokenizer::setTruncation
+#[no_mangle]
+pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_Tokenizer_setTruncation(
+    env: JNIEnv,
+    tokenizer: JObject,
+    max_length: jlong,
+    stride: jlong,
+) {
+    let result = || -> Result<(), Error> {
+        let mut tokenizer: MutexGuard<Tokenizer> = env.get_rust_field(tokenizer, "handle")?;
+        tokenizer.with_truncation(Some(TruncationParams {
+            max_length: max_length as usize,
+            stride: stride as usize,
+            ..Default::default()
+        }));
+        Ok(())
+    }();
+
+    unwrap_or_throw(&env, result, ());
+}
+
+/// Native method Tokenizer::setPadding
+#[no_mangle]
+pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_Tokenizer_setPadding(
+    env: JNIEnv,
+    tokenizer: JObject,
+    length: jlong,
+    pad_id: jint,
+    pad_type_id: jint,
+    pad_token: JString,
+) {
+    let result = || -> Result<(), Error> {
+        let pad_token: String = env.get_string(pad_token)?.into();
+        let strategy = if length > 0 {
+            PaddingStrategy::Fixed(length as usize)
+        } else {
+            PaddingStrategy::BatchLongest
+        };
+        let mut tokenizer: MutexGuard<Tokenizer> = env.get_rust_field(tokenizer, "handle")?;
+        tokenizer.with_padding(Some(PaddingParams {
+            strategy,
+            pad_id: pad_id as u32,
+            pad_type_id: pad_type_id as u32,
+            pad_token,
+            ..Default::default()
+        }));
+        Ok(())
+    }();
+
+    unwrap_or_throw(&env, result, ());
+}
+
 /// Native method Tokenizer::releaseHandle
 #[no_mangle]
 pub extern "system" fn Java_com_ovh_mls_serving_runtime_huggingface_tokenizer_Tokenizer_releaseHandle(
@@ -0,0 +1,44 @@
+package com.ovh.mls.serving.runtime.huggingface.tokenizer;
+
+/**
+ * Values of an encoding read once from the native tokenizer, so that they can be cached and shared
+ */
+class EncodedTensors {
+
+    final String[] tokens;
+    final int[] ids;
+    final int[] typeIds;
+    final int[] specialTokensMask;
+    final int[] attentionMask;
+
+    EncodedTensors(Encoding encoding) {
+        this(
+            encoding.getTokens(),
+            encoding.getIds(),
+            encoding.getTypeIds(),
+            encoding.getSpecialTokensMask(),
+            encoding.getAttentionMask()
+        );
+    }
+
+    EncodedTensors(String[] tokens, int[] ids, int[] typeIds, int[] specialTokensMask, int[] attentionMask) {
+        this.tokens = tokens;
+        this.ids = ids;
+        this.typeIds = typeIds;
+        this.specialTokensMask = specialTokensMask;
+        this.attentionMask = attentionMask;
+    }
+
+    /**
+     * Copy of these values, which can be modified without altering them
+     */
+    EncodedTensors copy() {
+        return new EncodedTensors(
+            tokens.clone(),
+            ids.clone(),
+            typeIds.clone(),
+            specialTokensMask.clone(),
+            attentionMask.clone()
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package com.ovh.mls.serving.runtime.huggingface.tokenizer;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import io.prometheus.client.Counter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the encodings of text inputs, keyed by the text (or pair of texts)
+ *
+ * Cached encodings are shared between evaluations, callers are only given copies of them.
+ */
+public class EncodingCache {
+
+    private static final Counter CACHE_COUNTER = Counter.build()
+        .name("huggingface_tokenizer_cache_count")
+        .help("Huggingface tokenizer encoding cache lookups")
+        .labelNames("result")
+        .register();
+
+    private final Cache<List<String>, EncodedTensors> cache;
+
+    /**
+     * @param maxSize Maximum number of cached encodings, least recently used ones being evicted first
+     * @param expireAfterSeconds Time after which a cached encoding is evicted, never if null
+     */
+    public EncodingCache(long maxSize, Long expireAfterSeconds) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(maxSize);
+        if (expireAfterSeconds != null) {
+            builder.expireAfterWrite(expireAfterSeconds, TimeUnit.SECONDS);
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Copy of the cached encoding of the given input, computed by the given encoder if missing
+     *
+     * Concurrent lookups of a same missing input wait for a single encoding.
+     *
+     * @param input2 Second input of a pair, null for a single input
+     */
+    EncodedTensors get(String input1, String input2, Supplier<EncodedTensors> encoder) {
+        List<String> key = Arrays.asList(input1, input2);
+        AtomicBoolean encodedNow = new AtomicBoolean();
+        EncodedTensors encoded;
+        try {
+            encoded = cache.get(key, () -> {
+                encodedNow.set(true);
+                return encoder.get();
+            });
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            // Rethrow what the encoder has thrown, as if it was called directly
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        } catch (ExecutionException e) {
+            throw new EvaluationException(e);
+        }
+        CACHE_COUNTER.labels(encodedNow.get() ? "miss" : "hit").inc();
+        return encoded.copy();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+}
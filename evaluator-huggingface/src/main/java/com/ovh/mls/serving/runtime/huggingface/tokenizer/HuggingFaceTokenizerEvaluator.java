@@ -6,6 +6,7 @@ import com.ovh.mls.serving.runtime.core.Evaluator;
 import com.ovh.mls.serving.runtime.core.Field;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 
 import java.util.List;
@@ -13,6 +14,8 @@ import java.util.List;
 /**
  * Inputs may of shape 1 (text) or shape N (tokenized text)
  * The second input is optional
+ *
+ * In batch mode, inputs are of shape [batch] (one text per row) and outputs of shape [batch, sequence]
  */
 public class HuggingFaceTokenizerEvaluator implements Evaluator<Field> {
 
@@ -25,9 +28,19 @@ public class HuggingFaceTokenizerEvaluator implements Evaluator<Field> {
     private static final String OUTPUT_ATTENTION_MASK = "attentionMask";
 
     private final Tokenizer tokenizer;
+    private final boolean batch;
+
+    // Cache of the encodings of text inputs, null if disabled
+    private final EncodingCache cache;
 
     public HuggingFaceTokenizerEvaluator(Tokenizer tokenizer) {
+        this(tokenizer, false, null);
+    }
+
+    public HuggingFaceTokenizerEvaluator(Tokenizer tokenizer, boolean batch, EncodingCache cache) {
         this.tokenizer = tokenizer;
+        this.batch = batch;
+        this.cache = cache;
     }
 
     @Override
@@ -35,60 +48,125 @@ public class HuggingFaceTokenizerEvaluator implements Evaluator<Field> {
         // Encode input
         Tensor input1 = io.getTensors().get(INPUT1);
         Tensor input2 = io.getTensors().get(INPUT2);
-        Encoding encoding;
+        if (batch) {
+            return evaluateBatch(input1, input2);
+        }
+        EncodedTensors encoded;
         if (input1.getShape().getArrayShape()[0] == 1) {
             String inputSequence1 = (String) input1.getCoord(0);
-            if (input2 == null) {
-                // Encode one text input
-                encoding = tokenizer.encode(inputSequence1);
+            String inputSequence2 = input2 == null ? null : (String) input2.getCoord(0);
+            if (cache == null) {
+                encoded = encodeText(inputSequence1, inputSequence2);
             } else {
-                String inputSequence2 = (String) input2.getCoord(0);
-                // Encode two text input
-                encoding = tokenizer.encode(inputSequence1, inputSequence2);
+                encoded = cache.get(inputSequence1, inputSequence2, () -> encodeText(inputSequence1, inputSequence2));
             }
         } else {
             String[] inputSequence1 = (String[]) input1.getData();
             if (input2 == null) {
                 // Encode one tokenized input
-                encoding = tokenizer.encode(inputSequence1);
+                encoded = new EncodedTensors(tokenizer.encode(inputSequence1));
             } else {
                 String[] inputSequence2 = (String[]) input2.getData();
                 // Encode two tokenized input
-                encoding = tokenizer.encode(inputSequence1, inputSequence2);
+                encoded = new EncodedTensors(tokenizer.encode(inputSequence1, inputSequence2));
             }
         }
 
-        // Build output
+        // Build output, tensors wrapping the encoded arrays without copy (cached encodings are given as copies)
         TensorIO output = new TensorIO();
         output.getTensors().put(OUTPUT_TOKENS, new Tensor(
             DataType.STRING,
-            new int[]{encoding.getTokens().length},
-            encoding.getTokens()
+            new int[]{encoded.tokens.length},
+            encoded.tokens
         ));
         output.getTensors().put(OUTPUT_IDS, new Tensor(
             DataType.INTEGER,
-            new int[]{encoding.getIds().length},
-            encoding.getIds()
+            new int[]{encoded.ids.length},
+            encoded.ids
         ));
         output.getTensors().put(OUTPUT_TYPE_IDS, new Tensor(
             DataType.INTEGER,
-            new int[]{encoding.getTypeIds().length},
-            encoding.getTypeIds()
+            new int[]{encoded.typeIds.length},
+            encoded.typeIds
         ));
         output.getTensors().put(OUTPUT_SPECIAL_TOKENS_MASK, new Tensor(
             DataType.INTEGER,
-            new int[]{encoding.getSpecialTokensMask().length},
-            encoding.getSpecialTokensMask()
+            new int[]{encoded.specialTokensMask.length},
+            encoded.specialTokensMask
         ));
         output.getTensors().put(OUTPUT_ATTENTION_MASK, new Tensor(
             DataType.INTEGER,
-            new int[]{encoding.getAttentionMask().length},
-            encoding.getAttentionMask()
+            new int[]{encoded.attentionMask.length},
+            encoded.attentionMask
         ));
 
         return output;
     }
 
+    private EncodedTensors encodeText(String inputSequence1, String inputSequence2) {
+        if (inputSequence2 == null) {
+            // Encode one text input
+            return new EncodedTensors(tokenizer.encode(inputSequence1));
+        }
+        // Encode two text input
+        return new EncodedTensors(tokenizer.encode(inputSequence1, inputSequence2));
+    }
+
+    private TensorIO evaluateBatch(Tensor input1, Tensor input2) throws EvaluationException {
+        String[] inputSequences1 = (String[]) input1.toVector().getData();
+        Encoding[] encodings;
+        if (input2 == null) {
+            // Encode a batch of text inputs
+            encodings = tokenizer.encodeBatch(inputSequences1);
+        } else {
+            String[] inputSequences2 = (String[]) input2.toVector().getData();
+            if (inputSequences1.length != inputSequences2.length) {
+                throw new EvaluationException(String.format(
+                    "Batches of %s and %s must have the same size, got %s and %s",
+                    INPUT1, INPUT2, inputSequences1.length, inputSequences2.length
+                ));
+            }
+            // Encode a batch of pairs of text inputs
+            encodings = tokenizer.encodeBatch(inputSequences1, inputSequences2);
+        }
+
+        // Encodings are padded to a same length by the tokenizer
+        int batchSize = encodings.length;
+        int sequenceLength = batchSize == 0 ? 0 : (int) encodings[0].size();
+        String[] tokens = new String[batchSize * sequenceLength];
+        int[] ids = new int[batchSize * sequenceLength];
+        int[] typeIds = new int[batchSize * sequenceLength];
+        int[] specialTokensMask = new int[batchSize * sequenceLength];
+        int[] attentionMask = new int[batchSize * sequenceLength];
+        for (int i = 0; i < batchSize; i++) {
+            Encoding encoding = encodings[i];
+            if (encoding.size() != sequenceLength) {
+                throw new EvaluationException("Encodings of a batch must be padded to a same length");
+            }
+            int offset = i * sequenceLength;
+            System.arraycopy(encoding.getTokens(), 0, tokens, offset, sequenceLength);
+            System.arraycopy(encoding.getIds(), 0, ids, offset, sequenceLength);
+            System.arraycopy(encoding.getTypeIds(), 0, typeIds, offset, sequenceLength);
+            System.arraycopy(encoding.getSpecialTokensMask(), 0, specialTokensMask, offset, sequenceLength);
+            System.arraycopy(encoding.getAttentionMask(), 0, attentionMask, offset, sequenceLength);
+        }
+
+        // Build output
+        int[] shape = new int[]{batchSize, sequenceLength};
+        TensorIO output = new TensorIO();
+        output.getTensors().put(OUTPUT_TOKENS, batchTensor(DataType.STRING, shape, tokens));
+        output.getTensors().put(OUTPUT_IDS, batchTensor(DataType.INTEGER, shape, ids));
+        output.getTensors().put(OUTPUT_TYPE_IDS, batchTensor(DataType.INTEGER, shape, typeIds));
+        output.getTensors().put(OUTPUT_SPECIAL_TOKENS_MASK, batchTensor(DataType.INTEGER, shape, specialTokensMask));
+        output.getTensors().put(OUTPUT_ATTENTION_MASK, batchTensor(DataType.INTEGER, shape, attentionMask));
+
+        return output;
+    }
+
+    private static Tensor batchTensor(DataType type, int[] shape, Object flatData) {
+        return Tensor.fromBuffer(type, shape, new TensorBuffer(type, flatData));
+    }
+
     @Override
     public List<Field> getInputs() {
         return List.of(
@@ -19,14 +19,98 @@ public class HuggingFaceTokenizerEvaluatorManifest extends AbstractEvaluatorMani
     @JsonProperty("saved_model_uri")
     private String savedModelUri;
 
+    /**
+     * Inputs are batches of texts (or pairs of texts), encoded into padded [batch, sequence] outputs
+     */
+    @JsonProperty("batch")
+    private boolean batch = false;
+
+    @JsonProperty("truncation")
+    private Truncation truncation;
+
+    /**
+     * Padding of the encodings, to the longest one of each batch by default in batch mode
+     */
+    @JsonProperty("padding")
+    private Padding padding;
+
+    /**
+     * Cache of the encodings of text inputs, disabled if missing (not used in batch mode)
+     */
+    @JsonProperty("cache")
+    private CacheOptions cache;
+
     @Override
     public HuggingFaceTokenizerEvaluator create(String path) throws EvaluatorException {
+        if (truncation != null && (truncation.maxLength == null || truncation.maxLength <= 0)) {
+            throw new EvaluatorException("Tokenizer truncation max_length must be a positive number of tokens");
+        }
         Tokenizer tokenizer = Tokenizer.fromFile(Paths.get(savedModelUri));
-        return new HuggingFaceTokenizerEvaluator(tokenizer);
+        if (truncation != null) {
+            tokenizer.setTruncation(truncation.maxLength, truncation.stride);
+        }
+        Padding tokenizerPadding = padding == null && batch ? new Padding() : padding;
+        if (tokenizerPadding != null) {
+            tokenizer.setPadding(
+                tokenizerPadding.length,
+                tokenizerPadding.padId,
+                tokenizerPadding.padTypeId,
+                tokenizerPadding.padToken
+            );
+        }
+        EncodingCache encodingCache = cache == null || batch
+            ? null
+            : new EncodingCache(cache.maxSize, cache.expireAfterSeconds);
+        return new HuggingFaceTokenizerEvaluator(tokenizer, batch, encodingCache);
     }
 
     @Override
     public String getType() {
         return TYPE;
     }
+
+    public static class Truncation {
+
+        /**
+         * Maximum number of tokens of an encoding, required
+         */
+        @JsonProperty("max_length")
+        private Long maxLength;
+
+        /**
+         * Number of tokens of the previous overflowing sequence repeated in the next one
+         */
+        @JsonProperty("stride")
+        private long stride = 0;
+    }
+
+    public static class Padding {
+
+        /**
+         * Fixed length of the encodings, padded to the longest one of the batch if 0
+         */
+        @JsonProperty("length")
+        private long length = 0;
+
+        @JsonProperty("pad_id")
+        private int padId = 0;
+
+        @JsonProperty("pad_type_id")
+        private int padTypeId = 0;
+
+        @JsonProperty("pad_token")
+        private String padToken = "[PAD]";
+    }
+
+    public static class CacheOptions {
+
+        @JsonProperty("max_size")
+        private long maxSize = 10000;
+
+        /**
+         * Time after which a cached encoding is evicted, never if missing
+         */
+        @JsonProperty("expire_after_seconds")
+        private Long expireAfterSeconds;
+    }
 }
@@ -67,6 +67,34 @@ public class Tokenizer {
      */
     public native Encoding encode(String[] tokens1, String[] tokens2);
 
+    /**
+     * Encode each of the given inputs, in parallel within the native tokenizer
+     *
+     * May throw an EvaluatorException
+     */
+    public native Encoding[] encodeBatch(String[] inputs);
+
+    /**
+     * Encode each of the given pairs of inputs, in parallel within the native tokenizer
+     *
+     * May throw an EvaluatorException
+     */
+    public native Encoding[] encodeBatch(String[] inputs1, String[] inputs2);
+
+    /**
+     * Truncate the encodings to the given maximum length, overflowing tokens being dropped
+     *
+     * May throw an EvaluatorException
+     */
+    public native void setTruncation(long maxLength, long stride);
+
+    /**
+     * Pad the encodings to the given length, or to the longest encoding of the batch if the length is not positive
+     *
+     * May throw an EvaluatorException
+     */
+    public native void setPadding(long length, int padId, int padTypeId, String padToken);
+
     /**
      * Give back the Rust pointer to be freed
      */
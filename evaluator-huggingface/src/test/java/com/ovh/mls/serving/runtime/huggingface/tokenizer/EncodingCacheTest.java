@@ -0,0 +1,73 @@
+package com.ovh.mls.serving.runtime.huggingface.tokenizer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class EncodingCacheTest {
+
+    @Test
+    void encodingsAreSharedPerInput() {
+        EncodingCache cache = new EncodingCache(10, null);
+        AtomicInteger encodings = new AtomicInteger();
+
+        EncodedTensors first = cache.get("This is a test", null, () -> encode(encodings));
+        cache.get("This is a test", null, () -> encode(encodings));
+        Assertions.assertEquals(1, encodings.get());
+
+        // Pairs are keyed by both inputs
+        EncodedTensors pair = cache.get("This is a test", "and a second sentence", () -> encode(encodings));
+        Assertions.assertNotSame(first, pair);
+        Assertions.assertEquals(2, encodings.get());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void cachedEncodingsCannotBeModifiedByCallers() {
+        EncodingCache cache = new EncodingCache(10, null);
+        AtomicInteger encodings = new AtomicInteger();
+
+        EncodedTensors first = cache.get("This is a test", null, () -> encode(encodings));
+        first.ids[0] = 42;
+        first.tokens[0] = "modified";
+
+        EncodedTensors second = cache.get("This is a test", null, () -> encode(encodings));
+        Assertions.assertNotSame(first.ids, second.ids);
+        Assertions.assertArrayEquals(new int[]{1}, second.ids);
+        Assertions.assertArrayEquals(new String[]{"a"}, second.tokens);
+        Assertions.assertEquals(1, encodings.get());
+    }
+
+    @Test
+    void encoderFailuresAreRethrownAndNotCached() {
+        EncodingCache cache = new EncodingCache(10, null);
+        AtomicInteger encodings = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get("This is a test", null, () -> {
+            throw new IllegalStateException("Encoding failure");
+        }));
+        cache.get("This is a test", null, () -> encode(encodings));
+
+        Assertions.assertEquals(1, encodings.get());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEncodingsAreEvicted() {
+        EncodingCache cache = new EncodingCache(1, null);
+        AtomicInteger encodings = new AtomicInteger();
+
+        cache.get("first", null, () -> encode(encodings));
+        cache.get("second", null, () -> encode(encodings));
+        cache.get("first", null, () -> encode(encodings));
+
+        Assertions.assertEquals(3, encodings.get());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    private static EncodedTensors encode(AtomicInteger encodings) {
+        encodings.incrementAndGet();
+        return new EncodedTensors(new String[]{"a"}, new int[]{1}, new int[]{0}, new int[]{0}, new int[]{1});
+    }
+}
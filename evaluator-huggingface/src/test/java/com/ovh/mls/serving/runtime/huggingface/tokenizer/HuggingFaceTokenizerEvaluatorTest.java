@@ -0,0 +1,90 @@
+package com.ovh.mls.serving.runtime.huggingface.tokenizer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.EvaluationContext;
+import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+class HuggingFaceTokenizerEvaluatorTest {
+
+    private static final String TOKENIZER = "src/test/resources/tokenizer.json";
+
+    @Test
+    void batchIsEncodedIntoPaddedRows() {
+        Tokenizer tokenizer = Tokenizer.fromFile(Path.of(TOKENIZER));
+        tokenizer.setPadding(0, 0, 0, "[PAD]");
+        HuggingFaceTokenizerEvaluator evaluator = new HuggingFaceTokenizerEvaluator(tokenizer, true, null);
+
+        TensorIO output = evaluator.evaluate(
+            inputs(new String[]{"This is a test", "This is"}, null),
+            new EvaluationContext()
+        );
+
+        Tensor ids = output.getTensors().get("ids");
+        Assertions.assertArrayEquals(new int[]{2, 11}, ids.getShapeAsArray());
+        Assertions.assertArrayEquals(
+            new int[]{83, 44, 58, 96, 83, 96, 93, 92, 55, 69, 70, 83, 44, 58, 96, 83, 96, 0, 0, 0, 0, 0},
+            (int[]) ids.getData()
+        );
+        Tensor attentionMask = output.getTensors().get("attentionMask");
+        Assertions.assertArrayEquals(new int[]{2, 11}, attentionMask.getShapeAsArray());
+        Assertions.assertEquals(1, attentionMask.getCoord(1, 5));
+        Assertions.assertEquals(0, attentionMask.getCoord(1, 6));
+        Tensor tokens = output.getTensors().get("tokens");
+        Assertions.assertArrayEquals(new int[]{2, 11}, tokens.getShapeAsArray());
+        Assertions.assertEquals("Ġt", tokens.getCoord(0, 7));
+    }
+
+    @Test
+    void batchesOfPairsMustHaveTheSameSize() {
+        Tokenizer tokenizer = Tokenizer.fromFile(Path.of(TOKENIZER));
+        tokenizer.setPadding(0, 0, 0, "[PAD]");
+        HuggingFaceTokenizerEvaluator evaluator = new HuggingFaceTokenizerEvaluator(tokenizer, true, null);
+
+        TensorIO inputs = inputs(new String[]{"This is a test", "This is"}, new String[]{"a test"});
+        Assertions.assertThrows(EvaluationException.class, () -> evaluator.evaluate(inputs, new EvaluationContext()));
+    }
+
+    @Test
+    void batchEncodingsMustBePadded() {
+        // Without padding, encodings of texts of different lengths can't be stacked into rows
+        Tokenizer tokenizer = Tokenizer.fromFile(Path.of(TOKENIZER));
+        HuggingFaceTokenizerEvaluator evaluator = new HuggingFaceTokenizerEvaluator(tokenizer, true, null);
+
+        TensorIO inputs = inputs(new String[]{"This is a test", "This is"}, null);
+        Assertions.assertThrows(EvaluationException.class, () -> evaluator.evaluate(inputs, new EvaluationContext()));
+    }
+
+    @Test
+    void truncationRequiresPositiveMaxLength() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        HuggingFaceTokenizerEvaluatorManifest missing = mapper.readValue(
+            "{\"saved_model_uri\": \"" + TOKENIZER + "\", \"truncation\": {\"stride\": 2}}",
+            HuggingFaceTokenizerEvaluatorManifest.class
+        );
+        Assertions.assertThrows(EvaluatorException.class, () -> missing.create(""));
+
+        HuggingFaceTokenizerEvaluatorManifest zero = mapper.readValue(
+            "{\"saved_model_uri\": \"" + TOKENIZER + "\", \"truncation\": {\"max_length\": 0}}",
+            HuggingFaceTokenizerEvaluatorManifest.class
+        );
+        Assertions.assertThrows(EvaluatorException.class, () -> zero.create(""));
+    }
+
+    private static TensorIO inputs(String[] input1, String[] input2) {
+        TensorIO inputs = new TensorIO();
+        inputs.getTensors().put("input1", new Tensor(DataType.STRING, new int[]{input1.length}, input1));
+        if (input2 != null) {
+            inputs.getTensors().put("input2", new Tensor(DataType.STRING, new int[]{input2.length}, input2));
+        }
+        return inputs;
+    }
+}
@@ -98,4 +98,25 @@ class TokenizerTest {
             encoding.getTokens()
         );
     }
+
+    @Test
+    void fromFileEncodeBatchWithPadding() {
+        Tokenizer tokenizer = Tokenizer.fromFile(Path.of("src/test/resources/tokenizer.json"));
+        tokenizer.setPadding(0, 0, 0, "[PAD]");
+        Encoding[] encodings = tokenizer.encodeBatch(new String[]{"This is a test", "This is"});
+
+        Assertions.assertEquals(2, encodings.length);
+        Assertions.assertArrayEquals(
+            new int[]{83, 44, 58, 96, 83, 96, 93, 92, 55, 69, 70},
+            encodings[0].getIds()
+        );
+        Assertions.assertArrayEquals(
+            new int[]{83, 44, 58, 96, 83, 96, 0, 0, 0, 0, 0},
+            encodings[1].getIds()
+        );
+        Assertions.assertArrayEquals(
+            new int[]{1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0},
+            encodings[1].getAttentionMask()
+        );
+    }
 }
@@ -10,63 +10,96 @@ import ai.onnxruntime.OrtSession;
 import com.ovh.mls.serving.runtime.core.AbstractTensorEvaluator;
 import com.ovh.mls.serving.runtime.core.DataType;
 import com.ovh.mls.serving.runtime.core.Field;
+import com.ovh.mls.serving.runtime.core.ReplicaPool;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
 import com.ovh.mls.serving.runtime.core.tensor.Tensor;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.core.tensor.TensorShape;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
 public class OnnxEvaluator extends AbstractTensorEvaluator<TensorField> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OnnxEvaluator.class);
     private static final OrtEnvironment ONNX_ENVIRONMENT;
+    private static final String ONNX_RUNTIME_POM_PROPERTIES = "/META-INF/maven/org.bytedeco/onnxruntime/pom.properties";
 
     static {
         ONNX_ENVIRONMENT = OrtEnvironment.getEnvironment();
     }
 
-    private final OrtSession onnxModel;
+    private static final String ONNX_RUNTIME_VERSION = getOnnxRuntimeVersion();
+
+    // One native session per replica
+    private final ReplicaPool<OrtSession> onnxModels;
 
     private OnnxEvaluator(
-        OrtSession onnxModel,
+        ReplicaPool<OrtSession> onnxModels,
         List<TensorField> inputTensorFields,
         List<TensorField> outputTensorFields,
         int batchSize
     ) {
         super(inputTensorFields, outputTensorFields, batchSize);
 
-        this.onnxModel = onnxModel;
+        this.onnxModels = onnxModels;
 
     }
 
     // Create a evaluator directly from an ONNX File
-    static OnnxEvaluator create(InputStream inputStream) throws EvaluatorException {
+    static OnnxEvaluator create(File file) throws EvaluatorException {
+        return create(file, 1, new OnnxSessionOptions());
+    }
+
+    // Create a evaluator directly from an ONNX File, with the given number of replicas and session options
+    static OnnxEvaluator create(
+        File file,
+        int replicas,
+        OnnxSessionOptions sessionOptions
+    ) throws EvaluatorException {
+        ReplicaPool<OrtSession> models = createSessions(OnnxModelSource.of(file), replicas, sessionOptions);
+        Map<String, OnnxTensor> tensors = new HashMap<>();
+        OrtSession.Result scores = null;
         try {
-            byte[] bytes = IOUtils.toByteArray(inputStream);
-            OrtSession model = ONNX_ENVIRONMENT.createSession(bytes);
+            OrtSession model = models.getReplicas().get(0);
 
             Map<String, TensorField> tensorFields = OnnxGenerator.buildInputs(model.getInputInfo());
 
             // For now, we need to call the model in order to get more information about the output
             // https://github.com/microsoft/onnxruntime/issues/2334
-            Map<String, OnnxTensor> tensors = new HashMap<>(tensorFields.size());
             boolean handleBatch = false;
             for (Map.Entry<String, TensorField> entry : tensorFields.entrySet()) {
                 TensorField tensorField = entry.getValue();
@@ -81,78 +114,249 @@ public class OnnxEvaluator extends AbstractTensorEvaluator<TensorField> {
             }
 
             // Score
-            OrtSession.Result scores = model.run(tensors);
+            scores = model.run(tensors);
 
             List<TensorField> outputs = OnnxGenerator.buildOutput(model.getOutputInfo(), scores, handleBatch);
 
-            return new OnnxEvaluator(model, new LinkedList<>(tensorFields.values()), outputs, 1);
-        } catch (OrtException | IOException e) {
+            return new OnnxEvaluator(models, new LinkedList<>(tensorFields.values()), outputs, 1);
+        } catch (OrtException e) {
+            closeQuietly(models, e);
             throw new EvaluatorException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(models, e);
+            throw e;
+        } finally {
+            // Free native memory of the probe
+            close(tensors, scores);
         }
     }
 
     // Create a evaluator from a manifest
     static OnnxEvaluator create(OnnxEvaluatorManifest manifest, String path) throws IOException, EvaluatorException {
-        try {
-            byte[] bytes;
-            if (manifest.getBinary() != null) {
-                // If binary is present in manifest
-                bytes = Base64.decodeBase64(manifest.getBinary());
-            } else {
-                InputStream inputStream = FileUtils.openInputStream(new File(path, manifest.getOnnxModelUri()));
-                bytes = IOUtils.toByteArray(inputStream);
+        return create(manifest, path, new OnnxSessionOptions());
+    }
+
+    // Create a evaluator from a manifest, session options missing from the manifest being taken from the defaults
+    static OnnxEvaluator create(
+        OnnxEvaluatorManifest manifest,
+        String path,
+        OnnxSessionOptions defaultSessionOptions
+    ) throws IOException, EvaluatorException {
+        OnnxModelSource model;
+        if (manifest.getBinary() != null) {
+            // If binary is present in manifest
+            model = OnnxModelSource.of(Base64.decodeBase64(manifest.getBinary()));
+        } else {
+            File file = new File(path, manifest.getOnnxModelUri());
+            if (!file.isFile()) {
+                throw new EvaluatorException(String.format("Onnx model %s not found", file));
             }
+            model = OnnxModelSource.of(file);
+        }
+
+        ReplicaPool<OrtSession> models = createSessions(
+            model,
+            manifest.getReplicas(),
+            manifest.getSessionOptions().withDefaults(defaultSessionOptions)
+        );
+
+        return new OnnxEvaluator(models, manifest.getInputs(), manifest.getOutputs(), manifest.getBatchSize());
+    }
+
+    /**
+     * Create one session per replica, each with its own thread pools
+     * If an optimized model cache is configured, sessions are created from the cached optimized model (written by
+     * the first session if missing) without running the graph optimizations again
+     */
+    private static ReplicaPool<OrtSession> createSessions(
+        OnnxModelSource model,
+        int replicas,
+        OnnxSessionOptions sessionOptions
+    ) throws EvaluatorException {
+        if (sessionOptions.getOptimizedModelCacheDir() == null) {
+            return ReplicaPool.create(replicas, index -> createSession(model, sessionOptions));
+        }
+
+        File cachedModel;
+        try {
+            cachedModel = getCachedModelFile(model, sessionOptions);
+        } catch (IOException e) {
+            throw new EvaluatorException(String.format("Unable to read onnx model %s", model), e);
+        }
+        OrtSession firstSession = null;
+        if (!cachedModel.isFile()) {
+            firstSession = createAndCacheSession(model, sessionOptions, cachedModel);
+        } else {
+            LOGGER.info("Loading optimized onnx model from cache {}", cachedModel);
+        }
 
-            OrtSession model = ONNX_ENVIRONMENT.createSession(bytes);
+        OrtSession optimizingSession = firstSession;
+        return ReplicaPool.create(replicas, index -> {
+            if (index == 0 && optimizingSession != null) {
+                return optimizingSession;
+            }
+            if (!cachedModel.isFile()) {
+                return createSession(model, sessionOptions);
+            }
+            try (OrtSession.SessionOptions options = sessionOptions.build()) {
+                // The cached model is already optimized
+                options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.NO_OPT);
+                return ONNX_ENVIRONMENT.createSession(cachedModel.getAbsolutePath(), options);
+            } catch (OrtException e) {
+                throw new EvaluatorException(e);
+            }
+        });
+    }
 
-            return new OnnxEvaluator(model, manifest.getInputs(), manifest.getOutputs(), manifest.getBatchSize());
+    private static OrtSession createSession(OnnxModelSource model, OnnxSessionOptions sessionOptions)
+        throws EvaluatorException {
+        try (OrtSession.SessionOptions options = sessionOptions.build()) {
+            return model.createSession(ONNX_ENVIRONMENT, options);
+        } catch (OrtException e) {
+            throw new EvaluatorException(e);
+        }
+    }
 
-        } catch (OrtException | IOException e) {
+    /**
+     * Create a session from the raw model, writing the optimized model into the cache
+     * The model is written into a temporary file first so that concurrent starts never read a partial model
+     */
+    private static OrtSession createAndCacheSession(
+        OnnxModelSource model,
+        OnnxSessionOptions sessionOptions,
+        File cachedModel
+    ) throws EvaluatorException {
+        File tmpModel = null;
+        OrtSession session;
+        try (OrtSession.SessionOptions options = sessionOptions.build()) {
+            FileUtils.forceMkdir(cachedModel.getParentFile());
+            tmpModel = File.createTempFile(cachedModel.getName(), ".tmp", cachedModel.getParentFile());
+            options.setOptimizedModelFilePath(tmpModel.getAbsolutePath());
+            session = model.createSession(ONNX_ENVIRONMENT, options);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to cache the optimized onnx model into {}", cachedModel, e);
+            FileUtils.deleteQuietly(tmpModel);
+            return createSession(model, sessionOptions);
+        } catch (OrtException e) {
+            FileUtils.deleteQuietly(tmpModel);
             throw new EvaluatorException(e);
         }
+
+        try {
+            Files.move(tmpModel.toPath(), cachedModel.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Optimized onnx model written into cache {}", cachedModel);
+        } catch (IOException e) {
+            // The session is usable as is, only the cache entry is missing
+            LOGGER.warn("Unable to cache the optimized onnx model into {}", cachedModel, e);
+            FileUtils.deleteQuietly(tmpModel);
+        }
+        return session;
+    }
+
+    /**
+     * File of the optimized model in the cache, keyed by a hash of the model, of the optimization options and of the
+     * onnxruntime version (optimized models may hold fused operators specific to the version that wrote them)
+     */
+    private static File getCachedModelFile(OnnxModelSource model, OnnxSessionOptions sessionOptions)
+        throws IOException {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        model.digest(digest);
+        digest.update(sessionOptions.describeOptimizations().getBytes(StandardCharsets.UTF_8));
+        digest.update(ONNX_RUNTIME_VERSION.getBytes(StandardCharsets.UTF_8));
+        String key = Hex.encodeHexString(digest.digest());
+        return new File(sessionOptions.getOptimizedModelCacheDir(), key + ".onnx");
+    }
+
+    /**
+     * Version of the onnxruntime library, taken from the manifest or the maven metadata of its jar
+     */
+    private static String getOnnxRuntimeVersion() {
+        String version = OrtEnvironment.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try (InputStream inputStream = OrtEnvironment.class.getResourceAsStream(ONNX_RUNTIME_POM_PROPERTIES)) {
+            if (inputStream != null) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                version = properties.getProperty("version");
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read onnxruntime version", e);
+        }
+        if (version != null) {
+            return version;
+        }
+        // Jars are named after their version
+        CodeSource codeSource = OrtEnvironment.class.getProtectionDomain().getCodeSource();
+        return codeSource != null ? String.valueOf(codeSource.getLocation()) : "unknown";
     }
 
     @Override
     protected TensorIO evaluateTensor(TensorIO tensorIO) throws EvaluationException {
-        // Build input
-        var inputTensors = this
-            .getInputTensorField()
-            .stream()
-            .collect(Collectors.toMap(
-                Field::getName,
-                tensorField -> buildInput(tensorField.getName(), tensorIO)
-            ));
-
-        // Score
-        OrtSession.Result scores = getScore(inputTensors);
-
-        TensorIO output = new TensorIO();
-
-        // Transform results
-        getOutputTensorField().forEach(tensorField -> {
-            Optional<OnnxValue> result = scores.get(tensorField.getName());
-            if (result.isEmpty()) {
-                throw new EvaluationException(String.format("Missing output: %s", tensorField.getName()));
+        return evaluateTensor(tensorIO, getOutputTensorField());
+    }
+
+    @Override
+    protected TensorIO evaluateTensor(
+        TensorIO tensorIO,
+        List<? extends TensorField> outputFields
+    ) throws EvaluationException {
+        Map<String, OnnxTensor> inputTensors = new HashMap<>();
+        OrtSession.Result scores = null;
+        try {
+            // Build input
+            for (TensorField tensorField : this.getInputTensorField()) {
+                inputTensors.put(tensorField.getName(), buildInput(tensorField.getName(), tensorIO));
             }
-            TensorIO singleTensorOutput = getOutput(tensorField, result.get());
-            output.merge(singleTensorOutput);
-        });
 
-        // Free memory
-        inputTensors.values().forEach(OnnxTensor::close);
-        scores.iterator().forEachRemaining(entry -> entry.getValue().close());
+            // Score, onnxruntime only computing the asked outputs
+            Set<String> outputNames = outputFields.stream().map(Field::getName).collect(Collectors.toSet());
+            scores = getScore(inputTensors, outputNames);
+
+            TensorIO output = new TensorIO();
 
-        return output;
+            // Transform results
+            for (TensorField tensorField : outputFields) {
+                Optional<OnnxValue> result = scores.get(tensorField.getName());
+                if (result.isEmpty()) {
+                    throw new EvaluationException(String.format("Missing output: %s", tensorField.getName()));
+                }
+                TensorIO singleTensorOutput = getOutput(tensorField, result.get());
+                output.merge(singleTensorOutput);
+            }
+            return output;
+        } finally {
+            // Free native memory, whether the evaluation succeeded or not
+            close(inputTensors, scores);
+        }
+    }
+
+    private static void close(Map<String, OnnxTensor> inputs, OrtSession.Result scores) {
+        inputs.values().forEach(OnnxTensor::close);
+        if (scores != null) {
+            scores.iterator().forEachRemaining(entry -> entry.getValue().close());
+        }
     }
 
-    private OrtSession.Result getScore(Map<String, OnnxTensor> tensors) {
+    private static void closeQuietly(ReplicaPool<OrtSession> models, Exception cause) {
         try {
-            return this.onnxModel.run(tensors);
-        } catch (OrtException e) {
-            throw new EvaluationException(e);
+            models.close();
+        } catch (EvaluatorException e) {
+            cause.addSuppressed(e);
         }
     }
 
+    private OrtSession.Result getScore(Map<String, OnnxTensor> tensors, Set<String> outputNames) {
+        return this.onnxModels.apply(onnxModel -> {
+            try {
+                return onnxModel.run(tensors, outputNames);
+            } catch (OrtException e) {
+                throw new EvaluationException(e);
+            }
+        });
+    }
+
     private static Object createArray(DataType type, TensorShape shape, int batchSize, Integer replaceMissingBy) {
         final Object array = Array.newInstance(type.getJavaClass(), shape.getNewShape(batchSize, replaceMissingBy));
 
@@ -185,13 +389,12 @@ public class OnnxEvaluator extends AbstractTensorEvaluator<TensorField> {
         try {
             switch (value.getType()) {
                 case ONNX_TYPE_SEQUENCE:
-                    // We transform the seq in a array
-                    var mapFromSeq = createArrayFromSeq(tensorField, (OnnxSequence) value);
-                    Tensor tensorSeq = Tensor.fromData(tensorField.getType(), mapFromSeq);
+                    // We transform the seq in a dense tensor
+                    Tensor tensorSeq = createTensorFromSeq(tensorField, (OnnxSequence) value);
                     tensorMap.put(tensorField.getName(), tensorSeq);
                     break;
                 case ONNX_TYPE_TENSOR:
-                    Tensor tensor = Tensor.fromData(tensorField.getType(), value.getValue());
+                    Tensor tensor = readTensor(tensorField, (OnnxTensor) value);
                     tensorMap.put(tensorField.getName(), tensor);
                     break;
                 default:
@@ -205,36 +408,139 @@ public class OnnxEvaluator extends AbstractTensorEvaluator<TensorField> {
         }
     }
 
-    private static Object createArrayFromSeq(
+    /**
+     * Convert a sequence of maps (class -> value), such as sklearn ZipMap outputs, into a dense [batch, classes]
+     * tensor. Values are written straight into a flat buffer, each map being iterated once without any key lookup.
+     */
+    private static Tensor createTensorFromSeq(
         TensorField tensorField,
         OnnxSequence sequence
     ) throws OrtException {
-        var batchSize = sequence.getInfo().length;
-        var array = createArray(tensorField.getType(), tensorField.getTensorShape(), batchSize, null);
-        var sequenceResults = sequence.getValue();
-
         if (!sequence.getInfo().isSequenceOfMaps() || sequence.getInfo().mapInfo.keyType != OnnxJavaType.INT64) {
             throw new EvaluationException("Only sequence of maps with INT64 keys are supported for now...");
         }
 
+        int batchSize = sequence.getInfo().length;
+        int classes = sequence.getInfo().mapInfo.size;
+        List<Object> sequenceResults = sequence.getValue();
+        TensorBuffer buffer = TensorBuffer.allocate(tensorField.getType(), batchSize * classes);
+        Object array = buffer.getArray();
+
         for (int i = 0; i < batchSize; i++) {
-            var subArray = Array.get(array, i);
-            Map map = (Map) sequenceResults.get(i);
-            for (int j = 0; j < sequence.getInfo().mapInfo.size; j++) {
-                Object obj = map.get(((Integer) j).longValue());
-                Array.set(subArray, j, obj);
+            int rowOffset = i * classes;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) sequenceResults.get(i)).entrySet()) {
+                long key = (Long) entry.getKey();
+                if (key < 0 || key >= classes) {
+                    throw new EvaluationException(
+                        String.format("Unexpected class %s in output %s", key, tensorField.getName())
+                    );
+                }
+                int position = rowOffset + (int) key;
+                Number value = (Number) entry.getValue();
+                if (array instanceof float[]) {
+                    ((float[]) array)[position] = value.floatValue();
+                } else if (array instanceof double[]) {
+                    ((double[]) array)[position] = value.doubleValue();
+                } else {
+                    buffer.set(position, value);
+                }
             }
         }
-        return array;
+        return Tensor.fromBuffer(tensorField.getType(), new int[] {batchSize, classes}, buffer);
+    }
+
+    /**
+     * Read an output tensor from its flat native buffer
+     * Types that can't be read this way (strings, booleans, scalars or a type different from the expected one) are
+     * read as nested arrays
+     */
+    private static Tensor readTensor(TensorField tensorField, OnnxTensor value) throws OrtException {
+        long[] onnxShape = value.getInfo().getShape();
+        int[] shape = new int[onnxShape.length];
+        int size = 1;
+        for (int i = 0; i < onnxShape.length; i++) {
+            shape[i] = (int) onnxShape[i];
+            size *= shape[i];
+        }
+
+        DataType type = tensorField.getType();
+        Object array = shape.length == 0 ? null : readArray(value, size);
+        if (array == null || array.getClass().getComponentType() != type.getJavaClass()) {
+            return Tensor.fromData(type, value.getValue());
+        }
+        return Tensor.fromBuffer(type, shape, new TensorBuffer(type, array));
     }
 
+    /**
+     * Copy the elements of a numeric onnx tensor into a java array, null for other types
+     */
+    private static Object readArray(OnnxTensor value, int size) {
+        switch (value.getInfo().type) {
+            case FLOAT:
+                float[] floats = new float[size];
+                value.getFloatBuffer().get(floats);
+                return floats;
+            case DOUBLE:
+                double[] doubles = new double[size];
+                value.getDoubleBuffer().get(doubles);
+                return doubles;
+            case INT32:
+                int[] ints = new int[size];
+                value.getIntBuffer().get(ints);
+                return ints;
+            case INT64:
+                long[] longs = new long[size];
+                value.getLongBuffer().get(longs);
+                return longs;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Build an input tensor from the flat storage of a serving tensor
+     * Numeric elements are copied once into a direct buffer that onnxruntime uses as is, strings are given as a flat
+     * array: none of them are walked as nested arrays through JNI
+     */
     private static OnnxTensor buildInput(String name, TensorIO io) throws EvaluationException {
         try {
             Tensor tensor = io.getTensor(name);
-            return OnnxTensor.createTensor(ONNX_ENVIRONMENT, tensor.getData());
+            TensorBuffer buffer = tensor.getBuffer();
+            if (buffer.isNullable() || tensor.getType() == DataType.BOOLEAN) {
+                return OnnxTensor.createTensor(ONNX_ENVIRONMENT, tensor.getData());
+            }
+
+            long[] shape = Arrays.stream(tensor.getShapeAsArray()).asLongStream().toArray();
+            Object array = buffer.getArray();
+            if (array instanceof float[]) {
+                float[] values = (float[]) array;
+                FloatBuffer direct = allocateDirect(values.length * Float.BYTES).asFloatBuffer();
+                direct.put(values).rewind();
+                return OnnxTensor.createTensor(ONNX_ENVIRONMENT, direct, shape);
+            } else if (array instanceof double[]) {
+                double[] values = (double[]) array;
+                DoubleBuffer direct = allocateDirect(values.length * Double.BYTES).asDoubleBuffer();
+                direct.put(values).rewind();
+                return OnnxTensor.createTensor(ONNX_ENVIRONMENT, direct, shape);
+            } else if (array instanceof int[]) {
+                int[] values = (int[]) array;
+                IntBuffer direct = allocateDirect(values.length * Integer.BYTES).asIntBuffer();
+                direct.put(values).rewind();
+                return OnnxTensor.createTensor(ONNX_ENVIRONMENT, direct, shape);
+            } else if (array instanceof long[]) {
+                long[] values = (long[]) array;
+                LongBuffer direct = allocateDirect(values.length * Long.BYTES).asLongBuffer();
+                direct.put(values).rewind();
+                return OnnxTensor.createTensor(ONNX_ENVIRONMENT, direct, shape);
+            }
+            return OnnxTensor.createTensor(ONNX_ENVIRONMENT, (String[]) array, shape);
         } catch (OrtException e) {
             throw new EvaluationException(e);
         }
     }
 
+    private static ByteBuffer allocateDirect(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
 }
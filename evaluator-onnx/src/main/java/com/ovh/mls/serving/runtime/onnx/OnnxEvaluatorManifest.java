@@ -3,11 +3,13 @@ package com.ovh.mls.serving.runtime.onnx;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.ovh.mls.serving.runtime.core.Evaluator;
 import com.ovh.mls.serving.runtime.core.EvaluatorManifest;
 import com.ovh.mls.serving.runtime.core.IncludeAsEvaluatorManifest;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,6 +29,17 @@ public class OnnxEvaluatorManifest implements EvaluatorManifest {
 
     private Integer batchSize = 1;
 
+    /**
+     * Number of sessions of the model, concurrent evaluations being dispatched to the least loaded one
+     */
+    private Integer replicas = 1;
+
+    /**
+     * Tuning of each session, unset options being taken from the evaluator config
+     */
+    @JsonUnwrapped
+    private OnnxSessionOptions sessionOptions = new OnnxSessionOptions();
+
     private List<TensorField> inputs;
     private List<TensorField> outputs;
 
@@ -35,6 +48,11 @@ public class OnnxEvaluatorManifest implements EvaluatorManifest {
         return OnnxEvaluator.create(this, path);
     }
 
+    @Override
+    public Evaluator create(String path, Config evaluatorConfig) throws IOException, EvaluatorException {
+        return OnnxEvaluator.create(this, path, OnnxSessionOptions.fromConfig(evaluatorConfig));
+    }
+
     @Override
     public String getType() {
         return TYPE;
@@ -56,6 +74,22 @@ public class OnnxEvaluatorManifest implements EvaluatorManifest {
         this.batchSize = batchSize;
     }
 
+    public Integer getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Integer replicas) {
+        this.replicas = replicas;
+    }
+
+    public OnnxSessionOptions getSessionOptions() {
+        return sessionOptions;
+    }
+
+    public void setSessionOptions(OnnxSessionOptions sessionOptions) {
+        this.sessionOptions = sessionOptions;
+    }
+
     public List<TensorField> getInputs() {
         return inputs;
     }
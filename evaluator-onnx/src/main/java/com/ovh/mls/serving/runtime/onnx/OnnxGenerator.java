@@ -18,8 +18,6 @@ import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import com.typesafe.config.Config;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -156,7 +154,8 @@ public class OnnxGenerator implements EvaluatorGenerator {
     }
 
     @Override
-    public Evaluator generate(File file, Config config) throws EvaluatorException, FileNotFoundException {
-        return OnnxEvaluator.create(new FileInputStream(file));
+    public Evaluator generate(File file, Config config) throws EvaluatorException {
+        int replicas = config.hasPath("onnx.replicas") ? config.getInt("onnx.replicas") : 1;
+        return OnnxEvaluator.create(file, replicas, OnnxSessionOptions.fromConfig(config));
     }
 }
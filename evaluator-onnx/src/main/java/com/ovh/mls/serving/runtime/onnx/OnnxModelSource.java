@@ -0,0 +1,90 @@
+package com.ovh.mls.serving.runtime.onnx;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+
+/**
+ * Serialized onnx model, from which onnxruntime sessions are created
+ *
+ * Models stored in files are given to onnxruntime by path, so that the weights are read natively and never copied on
+ * the java heap. Only models embedded in a manifest are kept as bytes.
+ */
+abstract class OnnxModelSource {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    static OnnxModelSource of(File file) {
+        return new FileSource(file);
+    }
+
+    static OnnxModelSource of(byte[] bytes) {
+        return new BytesSource(bytes);
+    }
+
+    abstract OrtSession createSession(OrtEnvironment environment, OrtSession.SessionOptions options)
+        throws OrtException;
+
+    /**
+     * Feed the content of the model to the given digest
+     */
+    abstract void digest(MessageDigest digest) throws IOException;
+
+    private static class FileSource extends OnnxModelSource {
+        private final File file;
+
+        private FileSource(File file) {
+            this.file = file;
+        }
+
+        @Override
+        OrtSession createSession(OrtEnvironment environment, OrtSession.SessionOptions options) throws OrtException {
+            return environment.createSession(file.getAbsolutePath(), options);
+        }
+
+        @Override
+        void digest(MessageDigest digest) throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream inputStream = new FileInputStream(file)) {
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    private static class BytesSource extends OnnxModelSource {
+        private final byte[] bytes;
+
+        private BytesSource(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        OrtSession createSession(OrtEnvironment environment, OrtSession.SessionOptions options) throws OrtException {
+            return environment.createSession(bytes, options);
+        }
+
+        @Override
+        void digest(MessageDigest digest) {
+            digest.update(bytes);
+        }
+
+        @Override
+        public String toString() {
+            return "embedded model";
+        }
+    }
+}
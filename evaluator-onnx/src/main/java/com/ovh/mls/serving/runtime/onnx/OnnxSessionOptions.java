@@ -0,0 +1,204 @@
+package com.ovh.mls.serving.runtime.onnx;
+
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
+
+import java.util.Locale;
+
+/**
+ * Tuning of the onnxruntime sessions of a model
+ *
+ * Every option is optional, onnxruntime defaults being used for unset ones. Options can be given in an onnx
+ * manifest or in the 'onnx' block of the evaluator config, the manifest taking precedence.
+ */
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OnnxSessionOptions {
+
+    /**
+     * Number of threads used to parallelize the execution within nodes
+     */
+    private Integer intraOpThreads;
+
+    /**
+     * Number of threads used to parallelize the execution of the graph (across nodes), in parallel mode only
+     */
+    private Integer interOpThreads;
+
+    /**
+     * Execution mode of the graph: 'sequential' or 'parallel'
+     */
+    private String executionMode;
+
+    /**
+     * Graph optimization level: 'no_opt', 'basic_opt', 'extended_opt' or 'all_opt'
+     */
+    private String optimizationLevel;
+
+    /**
+     * Pre-allocation of memory based on the input shapes seen so far
+     */
+    private Boolean memoryPattern;
+
+    /**
+     * Use of an arena allocator for CPU memory
+     */
+    private Boolean cpuArena;
+
+    /**
+     * Local directory where models optimized by onnxruntime are cached, so that later starts skip the optimizations
+     */
+    private String optimizedModelCacheDir;
+
+    /**
+     * Read the options from the 'onnx' block of the evaluator config
+     */
+    public static OnnxSessionOptions fromConfig(Config evaluatorConfig) {
+        OnnxSessionOptions options = new OnnxSessionOptions();
+        if (!evaluatorConfig.hasPath("onnx")) {
+            return options;
+        }
+        Config config = evaluatorConfig.getConfig("onnx");
+        options.intraOpThreads = config.hasPath("intra_op_threads") ? config.getInt("intra_op_threads") : null;
+        options.interOpThreads = config.hasPath("inter_op_threads") ? config.getInt("inter_op_threads") : null;
+        options.executionMode = config.hasPath("execution_mode") ? config.getString("execution_mode") : null;
+        options.optimizationLevel = config.hasPath("optimization_level")
+            ? config.getString("optimization_level")
+            : null;
+        options.memoryPattern = config.hasPath("memory_pattern") ? config.getBoolean("memory_pattern") : null;
+        options.cpuArena = config.hasPath("cpu_arena") ? config.getBoolean("cpu_arena") : null;
+        options.optimizedModelCacheDir = config.hasPath("optimized_model_cache_dir")
+            ? config.getString("optimized_model_cache_dir")
+            : null;
+        return options;
+    }
+
+    /**
+     * Options where unset values are taken from the given defaults
+     */
+    public OnnxSessionOptions withDefaults(OnnxSessionOptions defaults) {
+        OnnxSessionOptions options = new OnnxSessionOptions();
+        options.intraOpThreads = intraOpThreads != null ? intraOpThreads : defaults.intraOpThreads;
+        options.interOpThreads = interOpThreads != null ? interOpThreads : defaults.interOpThreads;
+        options.executionMode = executionMode != null ? executionMode : defaults.executionMode;
+        options.optimizationLevel = optimizationLevel != null ? optimizationLevel : defaults.optimizationLevel;
+        options.memoryPattern = memoryPattern != null ? memoryPattern : defaults.memoryPattern;
+        options.cpuArena = cpuArena != null ? cpuArena : defaults.cpuArena;
+        options.optimizedModelCacheDir = optimizedModelCacheDir != null
+            ? optimizedModelCacheDir
+            : defaults.optimizedModelCacheDir;
+        return options;
+    }
+
+    /**
+     * Build the onnxruntime options, to be closed by the caller once the session is created
+     */
+    public OrtSession.SessionOptions build() throws EvaluatorException {
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        try {
+            if (intraOpThreads != null) {
+                options.setIntraOpNumThreads(intraOpThreads);
+            }
+            if (interOpThreads != null) {
+                options.setInterOpNumThreads(interOpThreads);
+            }
+            if (executionMode != null) {
+                options.setExecutionMode(parse(OrtSession.SessionOptions.ExecutionMode.class, executionMode));
+            }
+            if (optimizationLevel != null) {
+                options.setOptimizationLevel(parse(OrtSession.SessionOptions.OptLevel.class, optimizationLevel));
+            }
+            if (memoryPattern != null) {
+                options.setMemoryPatternOptimization(memoryPattern);
+            }
+            if (cpuArena != null) {
+                options.setCPUArenaAllocator(cpuArena);
+            }
+            return options;
+        } catch (OrtException e) {
+            options.close();
+            throw new EvaluatorException("Invalid onnx session options", e);
+        } catch (EvaluatorException e) {
+            options.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Description of the options having an effect on the optimized model
+     */
+    String describeOptimizations() {
+        return String.format("optimization_level=%s", optimizationLevel);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> enumClass, String value) throws EvaluatorException {
+        try {
+            return Enum.valueOf(enumClass, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new EvaluatorException(
+                String.format("Invalid value '%s' for onnx option %s", value, enumClass.getSimpleName())
+            );
+        }
+    }
+
+    public Integer getIntraOpThreads() {
+        return intraOpThreads;
+    }
+
+    public void setIntraOpThreads(Integer intraOpThreads) {
+        this.intraOpThreads = intraOpThreads;
+    }
+
+    public Integer getInterOpThreads() {
+        return interOpThreads;
+    }
+
+    public void setInterOpThreads(Integer interOpThreads) {
+        this.interOpThreads = interOpThreads;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public String getOptimizationLevel() {
+        return optimizationLevel;
+    }
+
+    public void setOptimizationLevel(String optimizationLevel) {
+        this.optimizationLevel = optimizationLevel;
+    }
+
+    public Boolean getMemoryPattern() {
+        return memoryPattern;
+    }
+
+    public void setMemoryPattern(Boolean memoryPattern) {
+        this.memoryPattern = memoryPattern;
+    }
+
+    public Boolean getCpuArena() {
+        return cpuArena;
+    }
+
+    public void setCpuArena(Boolean cpuArena) {
+        this.cpuArena = cpuArena;
+    }
+
+    public String getOptimizedModelCacheDir() {
+        return optimizedModelCacheDir;
+    }
+
+    public void setOptimizedModelCacheDir(String optimizedModelCacheDir) {
+        this.optimizedModelCacheDir = optimizedModelCacheDir;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ovh.mls.serving.runtime.onnx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OnnxSessionOptionsTest {
+
+    @Test
+    public void manifestOptionsOverrideConfig() throws IOException {
+        OnnxEvaluatorManifest manifest = new ObjectMapper().readValue(
+            "{\"onnx_model_uri\": \"model.onnx\", \"replicas\": 2, \"intra_op_threads\": 4, "
+                + "\"execution_mode\": \"sequential\"}",
+            OnnxEvaluatorManifest.class
+        );
+        assertEquals(2, manifest.getReplicas());
+        assertEquals("model.onnx", manifest.getOnnxModelUri());
+
+        Config config = ConfigFactory.parseString(
+            "onnx { intra_op_threads: 1, inter_op_threads: 2, optimization_level: all_opt }"
+        );
+        OnnxSessionOptions options = manifest.getSessionOptions().withDefaults(OnnxSessionOptions.fromConfig(config));
+
+        assertEquals(4, options.getIntraOpThreads());
+        assertEquals(2, options.getInterOpThreads());
+        assertEquals("sequential", options.getExecutionMode());
+        assertEquals("all_opt", options.getOptimizationLevel());
+        assertNull(options.getMemoryPattern());
+        assertNull(options.getCpuArena());
+    }
+
+    @Test
+    public void emptyConfig() {
+        OnnxSessionOptions options = OnnxSessionOptions.fromConfig(ConfigFactory.empty());
+        assertNull(options.getIntraOpThreads());
+        assertNull(options.getExecutionMode());
+    }
+}
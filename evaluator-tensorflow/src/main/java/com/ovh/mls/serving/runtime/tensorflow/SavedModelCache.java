@@ -0,0 +1,231 @@
+package com.ovh.mls.serving.runtime.tensorflow;
+
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Local directory of saved models extracted from zip files or converted from h5 files
+ *
+ * Entries are keyed by the hash of the source file, so that a same model is extracted or converted only once across
+ * restarts. Without cache directory ('tensorflow.model_cache_dir' of the evaluator config), models are prepared in a
+ * temporary directory deleted once loaded.
+ */
+public class SavedModelCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SavedModelCache.class);
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final File directory;
+
+    public SavedModelCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Cache configured by 'tensorflow.model_cache_dir' of the evaluator config, disabled if missing
+     */
+    public static SavedModelCache fromConfig(Config evaluatorConfig) {
+        return evaluatorConfig.hasPath("tensorflow.model_cache_dir")
+            ? new SavedModelCache(new File(evaluatorConfig.getString("tensorflow.model_cache_dir")))
+            : disabled();
+    }
+
+    public static SavedModelCache disabled() {
+        return new SavedModelCache(null);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Directory holding the saved model extracted from the given zip file
+     */
+    public File extract(File zipFile) throws EvaluatorException {
+        return get(zipFile, "zip", SavedModelCache::unzip);
+    }
+
+    /**
+     * Directory prepared from the given source file by the given preparation, reused if already in the cache
+     *
+     * @param kind Kind of preparation, part of the cache key
+     */
+    public File get(File source, String kind, Preparation preparation) throws EvaluatorException {
+        try {
+            if (!isEnabled()) {
+                File target = new File("tmp", RandomStringUtils.randomAlphabetic(20));
+                prepare(preparation, source, target);
+                return target;
+            }
+
+            String key = String.format("%s-%s", kind, hash(source));
+            File target = new File(directory, key);
+            if (target.isDirectory()) {
+                LOGGER.info("Using cached saved model {} for {}", target, source);
+                return target;
+            }
+
+            Files.createDirectories(directory.toPath());
+            File tmpTarget = new File(directory, String.format(".%s.%s", key, RandomStringUtils.randomAlphabetic(8)));
+            try {
+                prepare(preparation, source, tmpTarget);
+                Files.move(tmpTarget.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                LOGGER.info("Cached saved model {} for {}", target, source);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Prepared concurrently by another evaluator, theirs is kept
+                LOGGER.debug("Saved model {} already cached", target);
+            } finally {
+                FileUtils.deleteQuietly(tmpTarget);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new EvaluatorException(String.format("Error during preparation of saved model %s", source), e);
+        }
+    }
+
+    /**
+     * Release a directory obtained from this cache once the saved model is loaded
+     */
+    public void release(File prepared) {
+        if (!isEnabled()) {
+            try {
+                FileUtils.deleteDirectory(prepared);
+            } catch (IOException e) {
+                LOGGER.error("Error during delete", e);
+            }
+        }
+    }
+
+    private static void prepare(Preparation preparation, File source, File target) throws IOException {
+        try {
+            preparation.prepare(source, target);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(target);
+            throw e;
+        }
+    }
+
+    private static String hash(File file) throws IOException {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Extract the entries of a zip file in parallel, each one through a large buffer
+     */
+    static void unzip(File source, File target) throws IOException {
+        Path root = target.getCanonicalFile().toPath();
+        Files.createDirectories(root);
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ZipFile zipFile = new ZipFile(source)) {
+            try {
+                List<Future<?>> extractions = new ArrayList<>();
+                for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                    Path destination = root.resolve(entry.getName()).normalize();
+                    if (!destination.startsWith(root)) {
+                        throw new IOException(String.format("Invalid zip entry %s", entry.getName()));
+                    }
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(destination);
+                        continue;
+                    }
+                    Files.createDirectories(destination.getParent());
+                    extractions.add(executor.submit(() -> {
+                        extractEntry(zipFile, entry, destination);
+                        return null;
+                    }));
+                }
+                for (Future<?> extraction : extractions) {
+                    extraction.get();
+                }
+            } finally {
+                // On failure, pending extractions are cancelled and running ones must be over before the zip is
+                // closed and the target directory deleted
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during zip extraction", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error during zip extraction", e.getCause());
+        }
+    }
+
+    private static void extractEntry(ZipFile zipFile, ZipEntry entry, Path destination) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (
+            InputStream inputStream = zipFile.getInputStream(entry);
+            OutputStream outputStream = new FileOutputStream(destination.toFile())
+        ) {
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Zip extraction cancelled");
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Wait for the end of the running extractions, even if interrupted meanwhile
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        boolean terminated = false;
+        while (!terminated) {
+            try {
+                terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Preparation {
+        void prepare(File source, File target) throws IOException;
+    }
+}
@@ -3,34 +3,35 @@ package com.ovh.mls.serving.runtime.tensorflow;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.ovh.mls.serving.runtime.core.AbstractTensorEvaluator;
 import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.ReplicaPool;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import com.ovh.mls.serving.runtime.validation.NumberOnly;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.RandomStringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.typesafe.config.Config;
 import org.tensorflow.SavedModelBundle;
 import org.tensorflow.Tensor;
+import org.tensorflow.framework.ConfigProto;
 import org.tensorflow.framework.MetaGraphDef;
 import org.tensorflow.framework.SignatureDef;
 import org.tensorflow.framework.TensorInfo;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 @NumberOnly
 public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(TensorflowEvaluator.class);
 
     /**
      * Tensorflow saved models are organized between TAG (train, eval, serve)
@@ -45,21 +46,26 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
     protected static final String DEFAULT_SIGNATURE_DEF = "predict";
 
 
-    private final SavedModelBundle savedModel;
+    // One loaded saved model (and so one native session) per replica
+    private final ReplicaPool<SavedModelBundle> savedModels;
     private Map<String, String> inputNameMapping;
     private Map<String, String> outputNameMapping;
 
     public static TensorflowEvaluator create(SavedModelBundle savedModel) {
-        return create(savedModel, DEFAULT_SIGNATURE_DEF);
+        return create(new ReplicaPool<>(List.of(savedModel)));
+    }
+
+    public static TensorflowEvaluator create(ReplicaPool<SavedModelBundle> savedModels) {
+        return create(savedModels, DEFAULT_SIGNATURE_DEF);
     }
 
     public static TensorflowEvaluator create(
-        SavedModelBundle savedModel,
+        ReplicaPool<SavedModelBundle> savedModels,
         String signatureDef
     ) {
-        SignatureDef signature = getSignatureDef(signatureDef, savedModel);
+        SignatureDef signature = getSignatureDef(signatureDef, savedModels.getReplicas().get(0));
         return new TensorflowEvaluator(
-            savedModel,
+            savedModels,
             signature,
             getInputTensorFieldFromSignatureDef(signature),
             getOutputTensorFieldFromSignatureDef(signature),
@@ -68,17 +74,23 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
     }
 
     protected TensorflowEvaluator(
-        SavedModelBundle savedModel,
+        ReplicaPool<SavedModelBundle> savedModels,
         String signatureName,
         List<TensorField> inputTensorFields,
         List<TensorField> outputTensorFields,
         int batchSize
     ) {
-        this(savedModel, getSignatureDef(signatureName, savedModel), inputTensorFields, outputTensorFields, batchSize);
+        this(
+            savedModels,
+            getSignatureDef(signatureName, savedModels.getReplicas().get(0)),
+            inputTensorFields,
+            outputTensorFields,
+            batchSize
+        );
     }
 
     protected TensorflowEvaluator(
-        SavedModelBundle savedModel,
+        ReplicaPool<SavedModelBundle> savedModels,
         SignatureDef signature,
         List<TensorField> inputTensorFields,
         List<TensorField> outputTensorFields,
@@ -86,7 +98,7 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
     ) {
         super(inputTensorFields, outputTensorFields, batchSize);
 
-        this.savedModel = savedModel;
+        this.savedModels = savedModels;
 
         this.inputNameMapping = new HashMap<>();
         for (Map.Entry<String, TensorInfo> entry : signature.getInputsMap().entrySet()) {
@@ -106,34 +118,39 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
      */
     public static TensorflowEvaluator create(TensorflowEvaluatorManifest manifest, String path)
         throws EvaluatorException, IOException {
+        return create(manifest, path, new TensorflowSessionOptions(), SavedModelCache.disabled());
+    }
+
+    /**
+     * Create a TensorflowEvaluator from a manifest, session options missing from the manifest being taken from the
+     * given defaults and zipped saved models being extracted through the given cache
+     */
+    public static TensorflowEvaluator create(
+        TensorflowEvaluatorManifest manifest,
+        String path,
+        TensorflowSessionOptions defaultSessionOptions,
+        SavedModelCache cache
+    ) throws EvaluatorException, IOException {
 
+        TensorflowSessionOptions sessionOptions = manifest.getSessionOptions().withDefaults(defaultSessionOptions);
         File file = new File(path, manifest.getSavedModelUri());
-        SavedModelBundle savedModel;
+        ReplicaPool<SavedModelBundle> savedModels;
         if (file.isDirectory()) {
             // If it's a directory
             String absolutePath = file.getAbsolutePath();
-            savedModel = SavedModelBundle.load(absolutePath, DEFAULT_TAG_TENSORFLOW);
+            savedModels = load(absolutePath, manifest.getReplicas(), sessionOptions);
         } else {
             // If it's a file : Unzip it
-            String tmpPath = String.format("tmp/%s/", RandomStringUtils.randomAlphabetic(20));
-            ;
-            var inputStream = FileUtils.openInputStream(file);
+            File extracted = cache.extract(file);
             try {
-                unzipSavedModel(inputStream, tmpPath);
-                savedModel = SavedModelBundle.load(tmpPath, DEFAULT_TAG_TENSORFLOW);
-            } catch (IOException e) {
-                throw new EvaluatorException("Error during saved model deserialization");
+                savedModels = load(extracted.getAbsolutePath(), manifest.getReplicas(), sessionOptions);
             } finally {
-                try {
-                    FileUtils.deleteDirectory(new File(tmpPath));
-                } catch (IOException e) {
-                    LOGGER.error("Error during delete", e);
-                }
+                cache.release(extracted);
             }
         }
 
         return new TensorflowEvaluator(
-            savedModel,
+            savedModels,
             DEFAULT_SIGNATURE_DEF,
             manifest.getInputs(),
             manifest.getOutputs(),
@@ -142,6 +159,30 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
 
     }
 
+    /**
+     * Load the given number of replicas of a saved model, each one with its own session
+     *
+     * @param sessionOptions Tuning of each session, tensorflow defaults being kept when no option is set
+     */
+    static ReplicaPool<SavedModelBundle> load(String path, int replicas, TensorflowSessionOptions sessionOptions)
+        throws EvaluatorException {
+        ConfigProto configProto = sessionOptions.build();
+        return ReplicaPool.create(replicas, index -> {
+            SavedModelBundle.Loader loader = SavedModelBundle.loader(path).withTags(DEFAULT_TAG_TENSORFLOW);
+            if (!configProto.equals(ConfigProto.getDefaultInstance())) {
+                loader.withConfigProto(configProto.toByteArray());
+            }
+            return loader.load();
+        });
+    }
+
+    /**
+     * Number of replicas of models loaded without manifest ('tensorflow.replicas' of the evaluator config)
+     */
+    static int getReplicas(Config evaluatorConfig) {
+        return evaluatorConfig.hasPath("tensorflow.replicas") ? evaluatorConfig.getInt("tensorflow.replicas") : 1;
+    }
+
     private static MetaGraphDef getGraphDefFromSavedModel(SavedModelBundle savedModel) throws EvaluatorException {
         try {
             return MetaGraphDef.newBuilder().mergeFrom(savedModel.metaGraphDef()).build();
@@ -223,65 +264,56 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
         }
     }
 
-    private static void unzipSavedModel(InputStream savedModelZip, String path) throws IOException {
-        // Load the zip file
-        ZipInputStream zipFile = new ZipInputStream(savedModelZip);
-        byte[] buffer = new byte[2048];
-        ZipEntry entry;
-        while ((entry = zipFile.getNextEntry()) != null) {
-            String fileName = entry.getName();
-
-            File newFile = new File(path, fileName);
-
-            if (entry.isDirectory()) {
-                boolean mkdirs = newFile.mkdirs();
-
-                if (!mkdirs) {
-                    throw new IOException(String.format("Cant create folder %s", newFile));
-                }
-                continue;
-            }
-
-            FileOutputStream fileOutputStream = new FileOutputStream(newFile);
-
-            int len;
-
-            while ((len = zipFile.read(buffer)) > 0) {
-                fileOutputStream.write(buffer, 0, len);
-            }
-
-            fileOutputStream.close();
-        }
+    @Override
+    protected TensorIO evaluateTensor(TensorIO tensorIO) throws EvaluationException {
+        return evaluateTensor(tensorIO, getOutputTensorField());
     }
 
     @Override
-    protected TensorIO evaluateTensor(TensorIO tensorIO) throws EvaluationException {
-        var session = this.savedModel.session();
+    protected TensorIO evaluateTensor(
+        TensorIO tensorIO,
+        List<? extends TensorField> outputFields
+    ) throws EvaluationException {
+        return this.savedModels.apply(savedModel -> evaluateTensor(savedModel, tensorIO, outputFields));
+    }
+
+    private TensorIO evaluateTensor(
+        SavedModelBundle savedModel,
+        TensorIO tensorIO,
+        List<? extends TensorField> outputFields
+    ) {
+        var session = savedModel.session();
         var runner = session.runner();
 
         // Build input
+        List<Tensor<?>> inputs = new ArrayList<>(this.getInputTensorField().size());
         this.getInputTensorField().forEach(tensorField -> {
             String name = tensorField.getName();
-            Object tensorData = tensorIO.getTensor(name).getData();
             String mappingName = this.inputNameMapping.get(name);
-            Tensor tensor = Tensor.create(tensorData);
+            Tensor<?> tensor = buildInput(tensorIO.getTensor(name));
+            inputs.add(tensor);
             runner.feed(mappingName, tensor);
         });
 
-        // Declare outputs
-        this.getOutputTensorField().forEach(tensorField -> {
+        // Declare outputs, only the asked ones being fetched
+        outputFields.forEach(tensorField -> {
             String name = tensorField.getName();
             String mappingName = this.outputNameMapping.get(name);
             runner.fetch(mappingName);
         });
 
         // Run
-        List<Tensor<?>> results = runner.run();
+        List<Tensor<?>> results;
+        try {
+            results = runner.run();
+        } finally {
+            inputs.forEach(Tensor::close);
+        }
 
         TensorIO output = new TensorIO();
         // Transfer output
-        for (int i = 0; i < this.getOutputTensorField().size(); i++) {
-            var outputBuilder = this.getOutputTensorField().get(i);
+        for (int i = 0; i < outputFields.size(); i++) {
+            var outputBuilder = outputFields.get(i);
             Tensor<?> tensor = results.get(i);
             TensorIO outputTensor = getOutput(outputBuilder, tensor);
             output.merge(outputTensor);
@@ -293,6 +325,37 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
         return output;
     }
 
+    /**
+     * Build a tensorflow tensor from the flat storage of a serving tensor through typed buffers
+     * Nullable tensors and strings are still given as nested arrays
+     */
+    private static Tensor<?> buildInput(com.ovh.mls.serving.runtime.core.tensor.Tensor servingTensor) {
+        TensorBuffer buffer = servingTensor.getBuffer();
+        if (buffer.isNullable()) {
+            return Tensor.create(servingTensor.getData());
+        }
+
+        long[] shape = Arrays.stream(servingTensor.getShapeAsArray()).asLongStream().toArray();
+        Object array = buffer.getArray();
+        if (array instanceof float[]) {
+            return Tensor.create(shape, FloatBuffer.wrap((float[]) array));
+        } else if (array instanceof double[]) {
+            return Tensor.create(shape, DoubleBuffer.wrap((double[]) array));
+        } else if (array instanceof int[]) {
+            return Tensor.create(shape, IntBuffer.wrap((int[]) array));
+        } else if (array instanceof long[]) {
+            return Tensor.create(shape, LongBuffer.wrap((long[]) array));
+        } else if (array instanceof boolean[]) {
+            boolean[] booleans = (boolean[]) array;
+            byte[] bytes = new byte[booleans.length];
+            for (int i = 0; i < booleans.length; i++) {
+                bytes[i] = (byte) (booleans[i] ? 1 : 0);
+            }
+            return Tensor.create(Boolean.class, shape, ByteBuffer.wrap(bytes));
+        }
+        return Tensor.create(servingTensor.getData());
+    }
+
     private static TensorIO getOutput(TensorField tensorField, Tensor<?> outputTensor) {
         long[] outputShape = outputTensor.shape();
 
@@ -303,23 +366,110 @@ public class TensorflowEvaluator extends AbstractTensorEvaluator<TensorField> {
         }
 
         DataType dataType = tensorField.getType();
-        Object tensorArray = Array.newInstance(dataType.getJavaClass(), outputShapeInt);
-        if (dataType != DataType.STRING) {
-            outputTensor.copyTo(tensorArray);
+        com.ovh.mls.serving.runtime.core.tensor.Tensor tensor;
+        Object flatArray = outputShapeInt.length == 0 ? null : readFlatArray(dataType, outputTensor);
+        if (flatArray != null) {
+            tensor = com.ovh.mls.serving.runtime.core.tensor.Tensor.fromBuffer(
+                dataType,
+                outputShapeInt,
+                new TensorBuffer(dataType, flatArray)
+            );
         } else {
-            // String are retrieve from byte array => Need to add a dimension to the final tensor
-            int[] byteArrayShape = Arrays.copyOf(outputShapeInt, outputShapeInt.length + 1);
-            Object byteTensorArray = Array.newInstance(byte.class, byteArrayShape);
-            outputTensor.copyTo(byteTensorArray);
-            tensorArray = byteTensorArray;
+            Object tensorArray = Array.newInstance(dataType.getJavaClass(), outputShapeInt);
+            outputTensor.copyTo(tensorArray);
+            tensor = new com.ovh.mls.serving.runtime.core.tensor.Tensor(dataType, outputShapeInt, tensorArray);
         }
 
         Map<String, com.ovh.mls.serving.runtime.core.tensor.Tensor> tensorMap = new HashMap<>();
-        tensorMap.put(
-            tensorField.getName(),
-            new com.ovh.mls.serving.runtime.core.tensor.Tensor(tensorField.getType(), outputShapeInt, tensorArray)
-        );
+        tensorMap.put(tensorField.getName(), tensor);
         return new TensorIO(tensorMap);
     }
 
+    /**
+     * Copy the elements of a tensorflow tensor into a flat java array of the given type
+     * Return null if the tensorflow type doesn't match it
+     */
+    private static Object readFlatArray(DataType dataType, Tensor<?> outputTensor) {
+        int size = outputTensor.numElements();
+        switch (outputTensor.dataType()) {
+            case FLOAT:
+                if (dataType != DataType.FLOAT) {
+                    return null;
+                }
+                float[] floats = new float[size];
+                outputTensor.writeTo(FloatBuffer.wrap(floats));
+                return floats;
+            case DOUBLE:
+                if (dataType != DataType.DOUBLE) {
+                    return null;
+                }
+                double[] doubles = new double[size];
+                outputTensor.writeTo(DoubleBuffer.wrap(doubles));
+                return doubles;
+            case INT32:
+                if (dataType != DataType.INTEGER) {
+                    return null;
+                }
+                int[] ints = new int[size];
+                outputTensor.writeTo(IntBuffer.wrap(ints));
+                return ints;
+            case INT64:
+                if (dataType != DataType.LONG) {
+                    return null;
+                }
+                long[] longs = new long[size];
+                outputTensor.writeTo(LongBuffer.wrap(longs));
+                return longs;
+            case BOOL:
+                if (dataType != DataType.BOOLEAN) {
+                    return null;
+                }
+                byte[] bytes = new byte[size];
+                outputTensor.writeTo(ByteBuffer.wrap(bytes));
+                boolean[] booleans = new boolean[size];
+                for (int i = 0; i < size; i++) {
+                    booleans[i] = bytes[i] != 0;
+                }
+                return booleans;
+            case STRING:
+                if (dataType != DataType.STRING) {
+                    return null;
+                }
+                return readStrings(outputTensor, size);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Decode the elements of a tensorflow string tensor into a flat array of strings
+     * Tensorflow only exposes them as nested byte arrays
+     */
+    private static String[] readStrings(Tensor<?> outputTensor, int size) {
+        long[] shape = outputTensor.shape();
+        int[] byteArrayShape = new int[shape.length + 1];
+        for (int i = 0; i < shape.length; i++) {
+            byteArrayShape[i] = (int) shape[i];
+        }
+        Object byteTensorArray = Array.newInstance(byte.class, byteArrayShape);
+        outputTensor.copyTo(byteTensorArray);
+
+        String[] strings = new String[size];
+        collectStrings(byteTensorArray, shape.length, strings, 0);
+        return strings;
+    }
+
+    private static int collectStrings(Object byteArrays, int rank, String[] strings, int position) {
+        if (rank == 1) {
+            for (byte[] bytes : (byte[][]) byteArrays) {
+                strings[position++] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return position;
+        }
+        for (Object subArray : (Object[]) byteArrays) {
+            position = collectStrings(subArray, rank - 1, strings, position);
+        }
+        return position;
+    }
+
 }
@@ -2,12 +2,14 @@ package com.ovh.mls.serving.runtime.tensorflow;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.ovh.mls.serving.runtime.core.EvaluatorManifest;
 import com.ovh.mls.serving.runtime.core.IncludeAsEvaluatorManifest;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
 
 import java.io.IOException;
 import java.util.List;
@@ -24,6 +26,17 @@ public class TensorflowEvaluatorManifest implements EvaluatorManifest {
 
     private Integer batchSize = 1;
 
+    /**
+     * Number of loaded copies of the model, concurrent evaluations being dispatched to the least loaded one
+     */
+    private Integer replicas = 1;
+
+    /**
+     * Tuning of each session, unset options being taken from the evaluator config
+     */
+    @JsonUnwrapped
+    private TensorflowSessionOptions sessionOptions = new TensorflowSessionOptions();
+
     private List<TensorField> inputs;
 
     private List<TensorField> outputs;
@@ -47,6 +60,22 @@ public class TensorflowEvaluatorManifest implements EvaluatorManifest {
         this.batchSize = batchSize;
     }
 
+    public Integer getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Integer replicas) {
+        this.replicas = replicas;
+    }
+
+    public TensorflowSessionOptions getSessionOptions() {
+        return sessionOptions;
+    }
+
+    public void setSessionOptions(TensorflowSessionOptions sessionOptions) {
+        this.sessionOptions = sessionOptions;
+    }
+
     @Override
     public String getType() {
         return type;
@@ -72,4 +101,14 @@ public class TensorflowEvaluatorManifest implements EvaluatorManifest {
     public TensorflowEvaluator create(String path1) throws EvaluatorException, IOException {
         return TensorflowEvaluator.create(this, path1);
     }
+
+    @Override
+    public TensorflowEvaluator create(String path, Config evaluatorConfig) throws EvaluatorException, IOException {
+        return TensorflowEvaluator.create(
+            this,
+            path,
+            TensorflowSessionOptions.fromConfig(evaluatorConfig),
+            SavedModelCache.fromConfig(evaluatorConfig)
+        );
+    }
 }
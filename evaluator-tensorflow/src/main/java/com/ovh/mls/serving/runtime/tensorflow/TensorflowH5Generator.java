@@ -4,11 +4,10 @@ import com.google.common.collect.Lists;
 import com.ovh.mls.serving.runtime.core.Evaluator;
 import com.ovh.mls.serving.runtime.core.EvaluatorGenerator;
 import com.ovh.mls.serving.runtime.core.IncludeAsEvaluatorGenerator;
+import com.ovh.mls.serving.runtime.core.ReplicaPool;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import com.typesafe.config.Config;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tensorflow.SavedModelBundle;
@@ -18,8 +17,6 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-import static com.ovh.mls.serving.runtime.tensorflow.TensorflowEvaluator.DEFAULT_TAG_TENSORFLOW;
-
 @IncludeAsEvaluatorGenerator(extension = "h5")
 public class TensorflowH5Generator implements EvaluatorGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(TensorflowH5Generator.class);
@@ -45,24 +42,26 @@ public class TensorflowH5Generator implements EvaluatorGenerator {
 
     @Override
     public Evaluator generate(File file, Config evaluatorConfig) throws EvaluatorException {
-        var path = String.format("tmp/%s/", RandomStringUtils.randomAlphabetic(20));
+        String converter = evaluatorConfig.getString("tensorflow.h5_converter.path");
+        SavedModelCache cache = SavedModelCache.fromConfig(evaluatorConfig);
 
+        File converted = cache.get(file, "h5", (source, target) -> {
+            try {
+                convertH5(converter, source.getAbsolutePath(), target.getPath());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted during h5 conversion", e);
+            }
+        });
         try {
-            convertH5(evaluatorConfig.getString("tensorflow.h5_converter.path"), file.getAbsolutePath(), path);
-            SavedModelBundle savedModel = SavedModelBundle.load(
-                String.format("%s/savedmodel/", path),
-                DEFAULT_TAG_TENSORFLOW
+            ReplicaPool<SavedModelBundle> savedModels = TensorflowEvaluator.load(
+                new File(converted, "savedmodel").getAbsolutePath(),
+                TensorflowEvaluator.getReplicas(evaluatorConfig),
+                TensorflowSessionOptions.fromConfig(evaluatorConfig)
             );
-            return TensorflowEvaluator.create(savedModel);
-
-        } catch (IOException | InterruptedException e) {
-            throw new EvaluatorException("Error during read manifest", e);
+            return TensorflowEvaluator.create(savedModels);
         } finally {
-            try {
-                FileUtils.deleteDirectory(new File(path));
-            } catch (IOException e) {
-                LOGGER.error("Error during delete", e);
-            }
+            cache.release(converted);
         }
     }
 }
@@ -0,0 +1,247 @@
+package com.ovh.mls.serving.runtime.tensorflow;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
+import org.tensorflow.framework.ConfigProto;
+import org.tensorflow.framework.GraphOptions;
+import org.tensorflow.framework.OptimizerOptions;
+import org.tensorflow.framework.ThreadPoolOptionProto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tuning of the tensorflow sessions of a saved model, given to tensorflow as a ConfigProto
+ *
+ * Every option is optional, tensorflow defaults being used for unset ones. Options can be given in a tensorflow
+ * manifest or in the 'tensorflow' block of the evaluator config, the manifest taking precedence.
+ */
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TensorflowSessionOptions {
+
+    /**
+     * Number of threads used to parallelize the execution within an operation
+     */
+    private Integer intraOpThreads;
+
+    /**
+     * Number of threads used to run independent operations in parallel
+     */
+    private Integer interOpThreads;
+
+    /**
+     * Give each session its own thread pools instead of the process wide ones
+     */
+    private Boolean usePerSessionThreads;
+
+    /**
+     * Sizes of dedicated inter-op thread pools of the session, runs using the first one
+     */
+    private List<Integer> interOpThreadPools;
+
+    /**
+     * Graph optimizer level: 'L0' (no optimization) or 'L1' (default optimizations)
+     */
+    private String optimizerLevel;
+
+    /**
+     * Can only be turned off with optimizer level 'L0', the 'L1' level forcing it on
+     */
+    private Boolean constantFolding;
+
+    /**
+     * Can only be turned off with optimizer level 'L0', the 'L1' level forcing it on
+     */
+    private Boolean commonSubexpressionElimination;
+
+    private Boolean functionInlining;
+
+    /**
+     * Global XLA JIT compilation of the graph
+     * On CPU, tensorflow also requires TF_XLA_FLAGS=--tf_xla_cpu_global_jit in the environment
+     */
+    private Boolean xlaJit;
+
+    /**
+     * Read the options from the 'tensorflow' block of the evaluator config
+     */
+    public static TensorflowSessionOptions fromConfig(Config evaluatorConfig) {
+        TensorflowSessionOptions options = new TensorflowSessionOptions();
+        if (!evaluatorConfig.hasPath("tensorflow")) {
+            return options;
+        }
+        Config config = evaluatorConfig.getConfig("tensorflow");
+        options.intraOpThreads = config.hasPath("intra_op_threads") ? config.getInt("intra_op_threads") : null;
+        options.interOpThreads = config.hasPath("inter_op_threads") ? config.getInt("inter_op_threads") : null;
+        options.usePerSessionThreads = config.hasPath("use_per_session_threads")
+            ? config.getBoolean("use_per_session_threads")
+            : null;
+        options.interOpThreadPools = config.hasPath("inter_op_thread_pools")
+            ? config.getIntList("inter_op_thread_pools")
+            : null;
+        options.optimizerLevel = config.hasPath("optimizer_level") ? config.getString("optimizer_level") : null;
+        options.constantFolding = config.hasPath("constant_folding") ? config.getBoolean("constant_folding") : null;
+        options.commonSubexpressionElimination = config.hasPath("common_subexpression_elimination")
+            ? config.getBoolean("common_subexpression_elimination")
+            : null;
+        options.functionInlining = config.hasPath("function_inlining") ? config.getBoolean("function_inlining") : null;
+        options.xlaJit = config.hasPath("xla_jit") ? config.getBoolean("xla_jit") : null;
+        return options;
+    }
+
+    /**
+     * Options where unset values are taken from the given defaults
+     */
+    public TensorflowSessionOptions withDefaults(TensorflowSessionOptions defaults) {
+        TensorflowSessionOptions options = new TensorflowSessionOptions();
+        options.intraOpThreads = intraOpThreads != null ? intraOpThreads : defaults.intraOpThreads;
+        options.interOpThreads = interOpThreads != null ? interOpThreads : defaults.interOpThreads;
+        options.usePerSessionThreads = usePerSessionThreads != null
+            ? usePerSessionThreads
+            : defaults.usePerSessionThreads;
+        options.interOpThreadPools = interOpThreadPools != null ? interOpThreadPools : defaults.interOpThreadPools;
+        options.optimizerLevel = optimizerLevel != null ? optimizerLevel : defaults.optimizerLevel;
+        options.constantFolding = constantFolding != null ? constantFolding : defaults.constantFolding;
+        options.commonSubexpressionElimination = commonSubexpressionElimination != null
+            ? commonSubexpressionElimination
+            : defaults.commonSubexpressionElimination;
+        options.functionInlining = functionInlining != null ? functionInlining : defaults.functionInlining;
+        options.xlaJit = xlaJit != null ? xlaJit : defaults.xlaJit;
+        return options;
+    }
+
+    /**
+     * Build the session ConfigProto
+     */
+    public ConfigProto build() throws EvaluatorException {
+        ConfigProto.Builder config = ConfigProto.newBuilder();
+        if (intraOpThreads != null) {
+            config.setIntraOpParallelismThreads(intraOpThreads);
+        }
+        if (interOpThreads != null) {
+            config.setInterOpParallelismThreads(interOpThreads);
+        }
+        if (usePerSessionThreads != null) {
+            config.setUsePerSessionThreads(usePerSessionThreads);
+        }
+        if (interOpThreadPools != null) {
+            for (Integer poolSize : interOpThreadPools) {
+                config.addSessionInterOpThreadPool(ThreadPoolOptionProto.newBuilder().setNumThreads(poolSize));
+            }
+        }
+
+        OptimizerOptions.Builder optimizer = OptimizerOptions.newBuilder();
+        if (optimizerLevel != null) {
+            try {
+                optimizer.setOptLevel(OptimizerOptions.Level.valueOf(optimizerLevel.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new EvaluatorException(
+                    String.format("Invalid value '%s' for tensorflow optimizer level", optimizerLevel)
+                );
+            }
+        }
+        // Tensorflow silently ignores these being turned off at the default L1 level
+        boolean disablesL1Optimization = Boolean.FALSE.equals(constantFolding)
+            || Boolean.FALSE.equals(commonSubexpressionElimination);
+        if (disablesL1Optimization && optimizer.getOptLevel() != OptimizerOptions.Level.L0) {
+            throw new EvaluatorException(
+                "Tensorflow constant_folding and common_subexpression_elimination can only be turned off "
+                    + "with optimizer_level L0"
+            );
+        }
+        if (constantFolding != null) {
+            optimizer.setDoConstantFolding(constantFolding);
+        }
+        if (commonSubexpressionElimination != null) {
+            optimizer.setDoCommonSubexpressionElimination(commonSubexpressionElimination);
+        }
+        if (functionInlining != null) {
+            optimizer.setDoFunctionInlining(functionInlining);
+        }
+        if (xlaJit != null) {
+            optimizer.setGlobalJitLevel(
+                xlaJit ? OptimizerOptions.GlobalJitLevel.ON_1 : OptimizerOptions.GlobalJitLevel.OFF
+            );
+        }
+        if (!optimizer.build().equals(OptimizerOptions.getDefaultInstance())) {
+            config.setGraphOptions(GraphOptions.newBuilder().setOptimizerOptions(optimizer));
+        }
+        return config.build();
+    }
+
+    public Integer getIntraOpThreads() {
+        return intraOpThreads;
+    }
+
+    public void setIntraOpThreads(Integer intraOpThreads) {
+        this.intraOpThreads = intraOpThreads;
+    }
+
+    public Integer getInterOpThreads() {
+        return interOpThreads;
+    }
+
+    public void setInterOpThreads(Integer interOpThreads) {
+        this.interOpThreads = interOpThreads;
+    }
+
+    public Boolean getUsePerSessionThreads() {
+        return usePerSessionThreads;
+    }
+
+    public void setUsePerSessionThreads(Boolean usePerSessionThreads) {
+        this.usePerSessionThreads = usePerSessionThreads;
+    }
+
+    public List<Integer> getInterOpThreadPools() {
+        return interOpThreadPools;
+    }
+
+    public void setInterOpThreadPools(List<Integer> interOpThreadPools) {
+        this.interOpThreadPools = interOpThreadPools;
+    }
+
+    public String getOptimizerLevel() {
+        return optimizerLevel;
+    }
+
+    public void setOptimizerLevel(String optimizerLevel) {
+        this.optimizerLevel = optimizerLevel;
+    }
+
+    public Boolean getConstantFolding() {
+        return constantFolding;
+    }
+
+    public void setConstantFolding(Boolean constantFolding) {
+        this.constantFolding = constantFolding;
+    }
+
+    public Boolean getCommonSubexpressionElimination() {
+        return commonSubexpressionElimination;
+    }
+
+    public void setCommonSubexpressionElimination(Boolean commonSubexpressionElimination) {
+        this.commonSubexpressionElimination = commonSubexpressionElimination;
+    }
+
+    public Boolean getFunctionInlining() {
+        return functionInlining;
+    }
+
+    public void setFunctionInlining(Boolean functionInlining) {
+        this.functionInlining = functionInlining;
+    }
+
+    public Boolean getXlaJit() {
+        return xlaJit;
+    }
+
+    public void setXlaJit(Boolean xlaJit) {
+        this.xlaJit = xlaJit;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ovh.mls.serving.runtime.tensorflow;
+
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavedModelCacheTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void extractedModelIsReused() throws IOException {
+        File zip = zip("model.zip", "saved_model.pb", "variables/variables.index");
+        SavedModelCache cache = new SavedModelCache(tmp.resolve("cache").toFile());
+
+        File extracted = cache.extract(zip);
+        assertEquals("saved_model.pb", read(new File(extracted, "saved_model.pb")));
+        assertEquals("variables/variables.index", read(new File(extracted, "variables/variables.index")));
+
+        cache.release(extracted);
+        assertTrue(extracted.isDirectory());
+        assertEquals(extracted, cache.extract(zip));
+        assertEquals(1, tmp.resolve("cache").toFile().list().length);
+    }
+
+    @Test
+    public void preparationRunsOncePerContent() throws IOException {
+        File source = tmp.resolve("model.h5").toFile();
+        Files.write(source.toPath(), new byte[] {1, 2, 3});
+        SavedModelCache cache = new SavedModelCache(tmp.resolve("cache").toFile());
+        AtomicInteger preparations = new AtomicInteger();
+        SavedModelCache.Preparation preparation = (input, target) -> {
+            preparations.incrementAndGet();
+            Files.createDirectories(target.toPath());
+        };
+
+        File first = cache.get(source, "h5", preparation);
+        assertEquals(first, cache.get(source, "h5", preparation));
+        assertEquals(1, preparations.get());
+
+        Files.write(source.toPath(), new byte[] {4, 5, 6});
+        File second = cache.get(source, "h5", preparation);
+        assertEquals(2, preparations.get());
+        assertFalse(first.equals(second));
+    }
+
+    @Test
+    public void disabledCacheDeletesOnRelease() throws IOException {
+        File zip = zip("model.zip", "saved_model.pb");
+        SavedModelCache cache = SavedModelCache.disabled();
+
+        File extracted = cache.extract(zip);
+        assertTrue(new File(extracted, "saved_model.pb").isFile());
+        cache.release(extracted);
+        assertFalse(extracted.exists());
+    }
+
+    @Test
+    public void failedPreparationIsNotCached() throws IOException {
+        File source = tmp.resolve("model.h5").toFile();
+        Files.write(source.toPath(), new byte[] {1, 2, 3});
+        File cacheDirectory = tmp.resolve("cache").toFile();
+        SavedModelCache cache = new SavedModelCache(cacheDirectory);
+        AtomicInteger preparations = new AtomicInteger();
+
+        assertThrows(EvaluatorException.class, () -> cache.get(source, "h5", (input, target) -> {
+            preparations.incrementAndGet();
+            Files.createDirectories(target.toPath());
+            throw new IOException("conversion failed");
+        }));
+        assertEquals(1, preparations.get());
+        assertEquals(0, cacheDirectory.list().length);
+    }
+
+    @Test
+    public void zipEntriesOutsideOfTargetAreRejected() throws IOException {
+        File zip = zip("evil.zip", "../evil");
+        assertThrows(EvaluatorException.class, () -> SavedModelCache.disabled().extract(zip));
+    }
+
+    @Test
+    public void failedExtractionLeavesNothingBehind() throws IOException {
+        File zip = zip("partial.zip", "saved_model.pb", "variables/variables.index", "../evil");
+        File cacheDirectory = tmp.resolve("cache").toFile();
+
+        assertThrows(EvaluatorException.class, () -> new SavedModelCache(cacheDirectory).extract(zip));
+        assertEquals(0, cacheDirectory.list().length);
+    }
+
+    private File zip(String name, String... entries) throws IOException {
+        File zip = tmp.resolve(name).toFile();
+        try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(zip))) {
+            for (String entry : entries) {
+                outputStream.putNextEntry(new ZipEntry(entry));
+                outputStream.write(entry.getBytes(StandardCharsets.UTF_8));
+                outputStream.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
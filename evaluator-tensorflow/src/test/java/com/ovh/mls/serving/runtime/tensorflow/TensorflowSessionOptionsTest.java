@@ -0,0 +1,74 @@
+package com.ovh.mls.serving.runtime.tensorflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+import org.tensorflow.framework.ConfigProto;
+import org.tensorflow.framework.OptimizerOptions;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TensorflowSessionOptionsTest {
+
+    @Test
+    public void manifestOptionsOverrideConfig() throws IOException {
+        TensorflowEvaluatorManifest manifest = new ObjectMapper().readValue(
+            "{\"saved_model_uri\": \"model\", \"replicas\": 2, \"intra_op_threads\": 4, \"xla_jit\": true}",
+            TensorflowEvaluatorManifest.class
+        );
+        assertEquals(2, manifest.getReplicas());
+        assertEquals("model", manifest.getSavedModelUri());
+
+        Config config = ConfigFactory.parseString(
+            "tensorflow { intra_op_threads: 1, inter_op_threads: 2, inter_op_thread_pools: [3], optimizer_level: l0 }"
+        );
+        ConfigProto proto = manifest.getSessionOptions()
+            .withDefaults(TensorflowSessionOptions.fromConfig(config))
+            .build();
+
+        assertEquals(4, proto.getIntraOpParallelismThreads());
+        assertEquals(2, proto.getInterOpParallelismThreads());
+        assertEquals(1, proto.getSessionInterOpThreadPoolCount());
+        assertEquals(3, proto.getSessionInterOpThreadPool(0).getNumThreads());
+        OptimizerOptions optimizer = proto.getGraphOptions().getOptimizerOptions();
+        assertEquals(OptimizerOptions.Level.L0, optimizer.getOptLevel());
+        assertEquals(OptimizerOptions.GlobalJitLevel.ON_1, optimizer.getGlobalJitLevel());
+    }
+
+    @Test
+    public void emptyOptionsKeepTensorflowDefaults() {
+        ConfigProto proto = TensorflowSessionOptions.fromConfig(ConfigFactory.empty()).build();
+        assertEquals(ConfigProto.getDefaultInstance(), proto);
+        assertFalse(proto.hasGraphOptions());
+    }
+
+    @Test
+    public void invalidOptimizerLevel() {
+        TensorflowSessionOptions options = new TensorflowSessionOptions();
+        options.setOptimizerLevel("l3");
+        assertThrows(EvaluatorException.class, options::build);
+    }
+
+    @Test
+    public void l1OptimizationsCanOnlyBeTurnedOffAtL0() {
+        TensorflowSessionOptions options = new TensorflowSessionOptions();
+        options.setConstantFolding(false);
+        assertThrows(EvaluatorException.class, options::build);
+
+        options.setOptimizerLevel("l1");
+        assertThrows(EvaluatorException.class, options::build);
+
+        options.setOptimizerLevel("l0");
+        options.setCommonSubexpressionElimination(false);
+        OptimizerOptions optimizer = options.build().getGraphOptions().getOptimizerOptions();
+        assertEquals(OptimizerOptions.Level.L0, optimizer.getOptLevel());
+        assertFalse(optimizer.getDoConstantFolding());
+        assertFalse(optimizer.getDoCommonSubexpressionElimination());
+    }
+}
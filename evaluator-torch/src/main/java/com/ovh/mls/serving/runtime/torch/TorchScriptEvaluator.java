@@ -2,7 +2,9 @@ package com.ovh.mls.serving.runtime.torch;
 
 import com.ovh.mls.serving.runtime.core.AbstractTensorEvaluator;
 import com.ovh.mls.serving.runtime.core.DataType;
+import com.ovh.mls.serving.runtime.core.ReplicaPool;
 import com.ovh.mls.serving.runtime.core.io.TensorIO;
+import com.ovh.mls.serving.runtime.core.tensor.TensorBuffer;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluationException;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
@@ -18,12 +20,16 @@ import java.util.List;
  */
 public class TorchScriptEvaluator extends AbstractTensorEvaluator<TensorField> {
 
-    // TorchScript module
-    private final Module module;
+    // TorchScript modules, one per replica
+    private final ReplicaPool<Module> modules;
 
     public TorchScriptEvaluator(Module module, List<TensorField> inputs, List<TensorField> outputs) {
+        this(new ReplicaPool<>(List.of(module)), inputs, outputs);
+    }
+
+    public TorchScriptEvaluator(ReplicaPool<Module> modules, List<TensorField> inputs, List<TensorField> outputs) {
         super(inputs, outputs, 0);
-        this.module = module;
+        this.modules = modules;
     }
 
     @Override
@@ -41,7 +47,7 @@ public class TorchScriptEvaluator extends AbstractTensorEvaluator<TensorField> {
             .toArray(IValue[]::new);
 
         // Evaluate model
-        IValue result = module.forward(inputs);
+        IValue result = this.modules.apply(module -> module.forward(inputs));
         IValue[] outputs;
         if (result.isTuple()) {
             outputs = result.toTuple();
@@ -65,13 +71,42 @@ public class TorchScriptEvaluator extends AbstractTensorEvaluator<TensorField> {
 
     /**
      * Convert a Serving tensor into a Torch tensor
+     * Values are written once from the flat serving buffer into the direct buffer the Torch tensor is backed by
      */
     private Tensor servingTensorToTorchTensor(com.ovh.mls.serving.runtime.core.tensor.Tensor servingTensor) {
-        Object data = servingTensor.toVector().getData();
         long[] shape = Arrays.stream(servingTensor.getShapeAsArray())
             .mapToLong(dim -> dim)
             .toArray();
 
+        TensorBuffer buffer = servingTensor.getBuffer();
+        if (buffer.isNullable()) {
+            return nullableServingTensorToTorchTensor(servingTensor, shape);
+        }
+
+        Object array = buffer.getArray();
+        switch (servingTensor.getType()) {
+            case INTEGER:
+                return Tensor.fromBlob(Tensor.allocateIntBuffer(buffer.length()).put((int[]) array), shape);
+            case LONG:
+                return Tensor.fromBlob(Tensor.allocateLongBuffer(buffer.length()).put((long[]) array), shape);
+            case FLOAT:
+                return Tensor.fromBlob(Tensor.allocateFloatBuffer(buffer.length()).put((float[]) array), shape);
+            case DOUBLE:
+                return Tensor.fromBlob(Tensor.allocateDoubleBuffer(buffer.length()).put((double[]) array), shape);
+            default:
+                throw new EvaluatorException(String.format(
+                    "Tensor of type '%s' cannot be converted to pyTorch tensor",
+                    servingTensor.getType()
+                ));
+        }
+    }
+
+    private Tensor nullableServingTensorToTorchTensor(
+        com.ovh.mls.serving.runtime.core.tensor.Tensor servingTensor,
+        long[] shape
+    ) {
+        Object data = servingTensor.toVector().getData();
+
         Tensor torchTensor;
         switch (servingTensor.getType()) {
             case INTEGER:
@@ -96,40 +131,38 @@ public class TorchScriptEvaluator extends AbstractTensorEvaluator<TensorField> {
     }
 
     /**
-     * Convert a Torch tensor into a Serving Tensor
+     * Convert a Torch tensor into a Serving Tensor of the same shape
+     * The flat data of the Torch tensor is used as the buffer of the Serving tensor, without building nested arrays
      */
     private com.ovh.mls.serving.runtime.core.tensor.Tensor torchTensorToServingTensor(Tensor torchTensor) {
-        int[] shape = new int[]{(int) torchTensor.numel()};
+        long[] torchShape = torchTensor.shape();
+        int[] shape = new int[torchShape.length];
+        for (int i = 0; i < torchShape.length; i++) {
+            shape[i] = (int) torchShape[i];
+        }
+        if (shape.length == 0) {
+            // Scalars are given as vectors of one element
+            shape = new int[]{1};
+        }
 
-        com.ovh.mls.serving.runtime.core.tensor.Tensor servingTensor;
+        DataType type;
+        Object data;
         switch (torchTensor.dtype()) {
             case INT32:
-                servingTensor = new com.ovh.mls.serving.runtime.core.tensor.Tensor(
-                    DataType.INTEGER,
-                    shape,
-                    torchTensor.getDataAsIntArray()
-                );
+                type = DataType.INTEGER;
+                data = torchTensor.getDataAsIntArray();
                 break;
             case INT64:
-                servingTensor = new com.ovh.mls.serving.runtime.core.tensor.Tensor(
-                    DataType.LONG,
-                    shape,
-                    torchTensor.getDataAsLongArray()
-                );
+                type = DataType.LONG;
+                data = torchTensor.getDataAsLongArray();
                 break;
             case FLOAT32:
-                servingTensor = new com.ovh.mls.serving.runtime.core.tensor.Tensor(
-                    DataType.FLOAT,
-                    shape,
-                    torchTensor.getDataAsFloatArray()
-                );
+                type = DataType.FLOAT;
+                data = torchTensor.getDataAsFloatArray();
                 break;
             case FLOAT64:
-                servingTensor = new com.ovh.mls.serving.runtime.core.tensor.Tensor(
-                    DataType.DOUBLE,
-                    shape,
-                    torchTensor.getDataAsDoubleArray()
-                );
+                type = DataType.DOUBLE;
+                data = torchTensor.getDataAsDoubleArray();
                 break;
             default:
                 throw new EvaluatorException(String.format(
@@ -137,6 +170,6 @@ public class TorchScriptEvaluator extends AbstractTensorEvaluator<TensorField> {
                     torchTensor.dtype()
                 ));
         }
-        return servingTensor;
+        return com.ovh.mls.serving.runtime.core.tensor.Tensor.fromBuffer(type, shape, new TensorBuffer(type, data));
     }
 }
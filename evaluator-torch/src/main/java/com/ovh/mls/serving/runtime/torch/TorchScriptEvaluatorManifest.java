@@ -5,6 +5,7 @@ import com.facebook.soloader.nativeloader.NativeLoader;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ovh.mls.serving.runtime.core.EvaluatorManifest;
 import com.ovh.mls.serving.runtime.core.IncludeAsEvaluatorManifest;
+import com.ovh.mls.serving.runtime.core.ReplicaPool;
 import com.ovh.mls.serving.runtime.core.tensor.TensorField;
 import com.ovh.mls.serving.runtime.exceptions.EvaluatorException;
 import com.ovh.mls.serving.runtime.utils.NativeUtils;
@@ -68,8 +69,19 @@ public class TorchScriptEvaluatorManifest implements EvaluatorManifest {
     @JsonProperty
     private List<TensorField> outputs;
 
+    /**
+     * Number of loaded copies of the module, concurrent evaluations being dispatched to the least loaded one
+     */
+    @JsonProperty
+    private Integer replicas = 1;
+
     @Override
     public TorchScriptEvaluator create(String path) throws EvaluatorException {
+        ReplicaPool<Module> modules = ReplicaPool.create(replicas, index -> load(path));
+        return new TorchScriptEvaluator(modules, inputs, outputs);
+    }
+
+    private Module load(String path) throws EvaluatorException {
         Module module;
         try {
             module = Module.load(savedModelUri);
@@ -85,7 +97,7 @@ public class TorchScriptEvaluatorManifest implements EvaluatorManifest {
                 );
             }
         }
-        return new TorchScriptEvaluator(module, inputs, outputs);
+        return module;
     }
 
     @Override